@@ -0,0 +1,78 @@
+package study.datajpa.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 동시 요청이 많을 때 /members(톰캣 스레드가 DB를 기다림)와 /async/members(repositoryExecutor로 넘김)의 처리량.
+ * 톰캣 스레드를 일부러 적게 잡아서 풀이 먼저 차게 만든다. 응답 코드별로 따로 세지 않으므로 503은 실패로 본다.
+ * ./gradlew jmh -Pjmh.includes=AsyncWebBenchmark -Pjmh.threads=256
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(128)
+public class AsyncWebBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"16"})
+    int tomcatThreads;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    URI blocking;
+    URI async;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb("web", "server.tomcat.threads.max=" + tomcatThreads,
+                "server.tomcat.accept-count=1000");
+        BenchmarkContext.seed(context, memberCount);
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        blocking = URI.create(base + "/members?page=1&size=20");
+        async = URI.create(base + "/async/members?page=1&size=20");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int get(URI uri) throws Exception {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Benchmark
+    public int blocking() throws Exception {
+        return get(blocking);
+    }
+
+    @Benchmark
+    public int async() throws Exception {
+        return get(async);
+    }
+}
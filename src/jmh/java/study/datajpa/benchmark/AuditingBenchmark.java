@@ -0,0 +1,100 @@
+package study.datajpa.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 10만 건에서 감사 필드를 채우는 비용 비교.
+ * perTransaction=false 는 예전처럼 엔티티마다 UUID.randomUUID()와 LocalDateTime.now()를 부른다.
+ * <ul>
+ *     <li>saveAllInBatch - persist는 flush 밖에서 불리므로 시각은 엔티티마다 구한다. 작성자 캐시 효과만 보인다.</li>
+ *     <li>updateAllInOneFlush - 영속 상태 회원을 모두 바꾸고 flush 한 번. @PreUpdate가 flush 안에서 불리므로
+ *     시각도 flush마다 한 번만 구하는 효과가 보인다.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class AuditingBenchmark {
+
+    @Param({"true", "false"})
+    boolean perTransaction;
+
+    @Param({"100000"})
+    int rowCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    List<Member> members;
+    TransactionTemplate tx;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("auditing", "datajpa.audit.per-transaction=" + perTransaction);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+        BenchmarkContext.seed(context, rowCount); // updateAllInOneFlush가 바꿀 회원
+    }
+
+    @Setup(Level.Iteration)
+    public void newMembers() {
+        members = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            members.add(new Member("audit" + i, i % 100, null));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteMembers() {
+        // 시드 회원은 남기고 saveAllInBatch가 넣은 회원만 지운다
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member m where m.username like 'audit%'")
+                .executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAllInBatch() {
+        return memberJpaRepository.saveAllInBatch(members);
+    }
+
+    @Benchmark
+    public int updateAllInOneFlush() {
+        return tx.execute(status -> {
+            List<Member> seeded = em.createQuery("select m from Member m where m.username like 'seed%'", Member.class)
+                    .getResultList();
+            seeded.forEach(member -> member.setAge(member.getAge() + 1));
+            em.flush(); // 회원 수만큼 @PreUpdate가 이 flush 안에서 불린다
+            return seeded.size();
+        });
+    }
+}
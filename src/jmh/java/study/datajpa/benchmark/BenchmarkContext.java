@@ -0,0 +1,73 @@
+package study.datajpa.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.TeamJpaRepository;
+
+/**
+ * 벤치마크용 스프링 컨텍스트. 인메모리 H2로 띄우고 지정한 수만큼 회원/팀을 채운다.
+ */
+class BenchmarkContext {
+
+    static final int MEMBERS_PER_TEAM = 100;
+
+    /**
+     * 시작할 때 MemberApiController.init()이 member1, member2를 따로 저장하므로 시드 회원은 다른 접두어를 쓴다.
+     * 같은 이름이 두 건이면 단건 조회가 깨진다.
+     */
+    static final String USERNAME_PREFIX = "seed";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.org.hibernate.SQL=warn")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * 임의 포트로 톰캣까지 띄운다. 포트는 local.server.port 로 꺼낸다.
+     */
+    static ConfigurableApplicationContext startWeb(String name, String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    static void seed(ConfigurableApplicationContext context, int memberCount) {
+        TeamJpaRepository teamJpaRepository = context.getBean(TeamJpaRepository.class);
+        MemberJpaRepository memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, memberCount / MEMBERS_PER_TEAM); i++) {
+            teams.add(new Team("team" + i));
+        }
+        teamJpaRepository.saveAllInBatch(teams);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member(username(i), i % 100, teams.get(i % teams.size())));
+        }
+        memberJpaRepository.saveAllInBatch(members);
+    }
+
+    static String username(int index) {
+        return USERNAME_PREFIX + index;
+    }
+}
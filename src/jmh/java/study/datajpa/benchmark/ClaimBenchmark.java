@@ -0,0 +1,59 @@
+package study.datajpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.repository.ClaimMode;
+import study.datajpa.service.MemberClaimService;
+
+/**
+ * 작업 큐처럼 회원 묶음을 잠가서 처리할 때의 처리량(초당 처리 회원 수 = 처리량 x batchSize).
+ * 회원마다 workMicros 만큼 일을 한다고 가정한다. 행은 바꾸지 않으므로 같은 회원을 계속 다시 가져간다.
+ * SKIP_LOCKED는 스레드 수에 비례해 늘고, WAIT는 같은 행을 두고 줄을 서서 거의 늘지 않는다.
+ * ./gradlew jmh -Pjmh.includes=ClaimBenchmark -Pjmh.threads=4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClaimBenchmark {
+
+    @Param({"SKIP_LOCKED", "WAIT"})
+    ClaimMode mode;
+
+    @Param({"20"})
+    int batchSize;
+
+    @Param({"100"})
+    long workMicros;
+
+    ConfigurableApplicationContext context;
+    MemberClaimService memberClaimService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("claim");
+        BenchmarkContext.seed(context, 10_000); // 나이마다 100명
+        memberClaimService = context.getBean(MemberClaimService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int claimAndProcess() {
+        return memberClaimService.processBatch(0, batchSize, mode,
+                member -> LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(workMicros)));
+    }
+}
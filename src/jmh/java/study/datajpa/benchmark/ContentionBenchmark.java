@@ -0,0 +1,58 @@
+package study.datajpa.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.service.MemberAgeService;
+
+/**
+ * 같은 회원 몇 명을 여러 스레드가 동시에 수정할 때 비관적 락과 낙관적 락(+재시도)의 처리량 비교.
+ * hotMembers가 작을수록 충돌이 잦다. ./gradlew jmh -Pjmh.includes=ContentionBenchmark -Pjmh.threads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContentionBenchmark {
+
+    @Param({"1", "10", "100"})
+    int hotMembers;
+
+    ConfigurableApplicationContext context;
+    MemberAgeService memberAgeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("contention");
+        BenchmarkContext.seed(context, hotMembers);
+        memberAgeService = context.getBean(MemberAgeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String pickMember() {
+        return BenchmarkContext.username(ThreadLocalRandom.current().nextInt(hotMembers));
+    }
+
+    @Benchmark
+    public int pessimistic() {
+        return memberAgeService.increaseAgePessimistic(pickMember());
+    }
+
+    @Benchmark
+    public int optimistic() {
+        return memberAgeService.increaseAgeOptimistic(pickMember());
+    }
+}
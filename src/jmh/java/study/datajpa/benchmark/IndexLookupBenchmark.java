@@ -0,0 +1,76 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 100만 건에서 username/age 조회 지연 시간. indexed=false 는 엔티티에 선언한 인덱스를 지운 상태(예전 스키마)다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndexLookupBenchmark {
+
+    // 시작할 때 init()이 저장하는 회원(id 1, 2 / member1, member2)과 겹치지 않게 한다
+    private static final long ID_OFFSET = 1_000_000;
+    private static final String USERNAME_PREFIX = "lookup";
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    @Param({"1000000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("index");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // 100만 건은 JPA로 넣기엔 오래 걸려서 H2에서 바로 만든다
+        jdbcTemplate.update("insert into member (member_id, username, age, version) "
+                        + "select x, cast(? as varchar) || x, mod(x, 100), 0 from system_range(?, ?)",
+                USERNAME_PREFIX, ID_OFFSET, ID_OFFSET + memberCount - 1);
+        if (!indexed) {
+            for (String index : List.of("idx_member_username", "idx_member_age", "idx_member_team_id")) {
+                jdbcTemplate.execute("drop index if exists " + index);
+            }
+        }
+        jdbcTemplate.execute("analyze");
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member findByUsername() {
+        return memberRepository.findByUsername(
+                USERNAME_PREFIX + (ID_OFFSET + ThreadLocalRandom.current().nextInt(memberCount)));
+    }
+
+    @Benchmark
+    public List<Member> findByAgeFirstPage() {
+        return memberRepository.findSliceByAge(ThreadLocalRandom.current().nextInt(100), PageRequest.of(0, 20))
+                .getContent();
+    }
+}
@@ -0,0 +1,177 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.CountMode;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSpec;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.Window;
+
+/**
+ * 조회 경로 비교: 파생 쿼리 vs @Query vs Specification vs 순수 JPA, 오프셋 vs 키셋 페이징, 엔티티 vs 프로젝션, 지연 로딩 vs 페치 조인.
+ * 여기 지연 로딩은 배치 페치가 켜진 상태다. 배치 페치 없는 지연 로딩과 prefetch 비교는 {@link PrefetchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberReadBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"20"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    long minId;
+    long maxId;
+    String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read");
+        BenchmarkContext.seed(context, memberCount);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        tx.setReadOnly(true);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        minId = memberRepository.findWindow(null, 1).getContent().get(0).getId();
+        maxId = minId + memberCount + 1; // MemberApiController.init()이 넣는 회원 2명 포함
+        deepCursor = tx.execute(status -> {
+            Window<Member> window = memberRepository.findWindow(null, memberCount - pageSize);
+            return window.getNextCursor();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    private String randomUsername() {
+        return BenchmarkContext.username(ThreadLocalRandom.current().nextInt(memberCount));
+    }
+
+    @Benchmark
+    public Object findById() {
+        return tx.execute(status -> memberRepository.findById(randomId()));
+    }
+
+    @Benchmark
+    public Object findByIdPureJpa() {
+        return tx.execute(status -> memberJpaRepository.findById(randomId()));
+    }
+
+    @Benchmark
+    public List<Member> derivedQuery() {
+        return tx.execute(status -> memberRepository.findListByUsername(randomUsername()));
+    }
+
+    @Benchmark
+    public List<Member> annotatedQuery() {
+        return tx.execute(status -> memberRepository.findMember(randomUsername(), 10));
+    }
+
+    @Benchmark
+    public List<Member> specification() {
+        Specification<Member> spec = MemberSpec.username(randomUsername()).and(MemberSpec.teamName("team1"));
+        return tx.execute(status -> memberRepository.findAll(spec));
+    }
+
+    @Benchmark
+    public List<Member> pureJpaQuery() {
+        return tx.execute(status -> memberJpaRepository.findByUsernameAndGreaterThan(randomUsername(), 10));
+    }
+
+    @Benchmark
+    public Page<Member> offsetPageFirst() {
+        return tx.execute(status -> memberRepository.findPage(PageRequest.of(0, pageSize), CountMode.EXACT));
+    }
+
+    @Benchmark
+    public Page<Member> offsetPageDeep() {
+        int lastPage = memberCount / pageSize - 1;
+        return tx.execute(status -> memberRepository.findPage(PageRequest.of(lastPage, pageSize), CountMode.EXACT));
+    }
+
+    @Benchmark
+    public Page<Member> offsetPageDeepCachedCount() {
+        int lastPage = memberCount / pageSize - 1;
+        return tx.execute(status -> memberRepository.findPage(PageRequest.of(lastPage, pageSize), CountMode.CACHED));
+    }
+
+    @Benchmark
+    public Window<Member> keysetPageDeep() {
+        return tx.execute(status -> memberRepository.findWindow(deepCursor, pageSize));
+    }
+
+    @Benchmark
+    public Page<MemberDto> dtoProjectionPage() {
+        return tx.execute(status -> memberRepository.findDtoPage(PageRequest.of(0, pageSize), CountMode.CACHED));
+    }
+
+    @Benchmark
+    public Page<MemberDto> entityPageMappedToDto() {
+        return tx.execute(status -> memberRepository.findPage(PageRequest.of(0, pageSize), CountMode.CACHED)
+                .map(MemberDto::new));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> interfaceProjection() {
+        return tx.execute(status -> memberRepository.findProjectionsByUsername(randomUsername(),
+                NestedClosedProjections.class));
+    }
+
+    @Benchmark
+    public int lazyTeamAccess() {
+        return tx.execute(status -> {
+            int length = 0;
+            for (Member member : memberRepository.findCustomMember()) {
+                if (member.getTeam() != null) { // init()이 넣는 회원은 팀이 없다
+                    length += member.getTeam().getName().length();
+                }
+            }
+            return length;
+        });
+    }
+
+    @Benchmark
+    public int fetchJoinTeamAccess() {
+        return tx.execute(status -> {
+            int length = 0;
+            for (Member member : memberRepository.findMemberFetch()) {
+                length += member.getTeam().getName().length();
+            }
+            return length;
+        });
+    }
+}
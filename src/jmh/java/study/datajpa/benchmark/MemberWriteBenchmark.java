@@ -0,0 +1,99 @@
+package study.datajpa.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 쓰기 경로 비교: save 반복 vs 배치 저장, 벌크 업데이트.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberWriteBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"1000"})
+    int insertCount;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("write");
+        BenchmarkContext.seed(context, memberCount);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    /**
+     * 반복마다 저장한 회원을 지운다. 쌓아 두면 뒤쪽 반복일수록 테이블/인덱스가 커져서 측정값이 계속 밀린다.
+     * 시드 회원은 남겨서 bulkAgePlus가 매번 같은 행 수를 갱신하게 한다.
+     */
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member m where m.username like 'bench%'")
+                .executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(insertCount);
+        for (int i = 0; i < insertCount; i++) {
+            members.add(new Member("bench" + i, i % 100, null));
+        }
+        return members;
+    }
+
+    @Benchmark
+    public int saveLoop() {
+        List<Member> members = newMembers();
+        tx.executeWithoutResult(status -> members.forEach(memberJpaRepository::save));
+        return members.size();
+    }
+
+    @Benchmark
+    public int saveAllSpringData() {
+        List<Member> members = newMembers();
+        return tx.execute(status -> memberRepository.saveAll(members).size());
+    }
+
+    @Benchmark
+    public int saveAllInBatch() {
+        return memberJpaRepository.saveAllInBatch(newMembers());
+    }
+
+    @Benchmark
+    public int bulkAgePlus() {
+        return tx.execute(status -> memberRepository.bulkAgePlus(50));
+    }
+}
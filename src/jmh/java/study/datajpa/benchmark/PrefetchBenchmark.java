@@ -0,0 +1,111 @@
+package study.datajpa.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * prefetchTeams/prefetchMembers 대 순수 지연 로딩(연관 객체마다 쿼리 한 번).
+ * 기준선이 배치 페치나 2차 캐시에 가려지지 않도록 둘 다 끈 컨텍스트에서 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrefetchBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    // 팀당 회원이 MEMBERS_PER_TEAM 명이라 200명이면 팀 100개에 흩어진다
+    @Param({"200"})
+    int loadCount;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    TeamRepository teamRepository;
+    List<String> usernames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("prefetch",
+                "spring.jpa.properties.hibernate.default_batch_fetch_size=1",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkContext.seed(context, memberCount);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        tx.setReadOnly(true);
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        usernames = new ArrayList<>(loadCount);
+        for (int i = 0; i < loadCount; i++) {
+            usernames.add(BenchmarkContext.username(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int lazyTeams() {
+        return tx.execute(status -> teamNameLength(memberRepository.findByNames(usernames)));
+    }
+
+    @Benchmark
+    public int prefetchTeams() {
+        return tx.execute(status -> {
+            List<Member> members = memberRepository.findByNames(usernames);
+            memberRepository.prefetchTeams(members);
+            return teamNameLength(members);
+        });
+    }
+
+    @Benchmark
+    public int lazyMembers() {
+        return tx.execute(status -> memberCount(teamRepository.findAll()));
+    }
+
+    @Benchmark
+    public int prefetchMembers() {
+        return tx.execute(status -> {
+            List<Team> teams = teamRepository.findAll();
+            teamRepository.prefetchMembers(teams);
+            return memberCount(teams);
+        });
+    }
+
+    private static int teamNameLength(List<Member> members) {
+        int length = 0;
+        for (Member member : members) {
+            length += member.getTeam().getName().length();
+        }
+        return length;
+    }
+
+    private static int memberCount(List<Team> teams) {
+        int count = 0;
+        for (Team team : teams) {
+            count += team.getMembers().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 큰 결과를 읽고 커밋(flush)까지 하는 비용 비교. 메모리는 -prof gc 로 같이 본다.
+ * ./gradlew jmh -Pjmh.includes=ReadOnlyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadOnlyBenchmark {
+
+    @Param({"10000", "100000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readWriteTx;
+    TransactionTemplate readOnlyTx;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("readonly");
+        BenchmarkContext.seed(context, memberCount);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 기준선: 쓰기 트랜잭션, 힌트 없음. 엔티티마다 스냅샷을 만들고 커밋 때 전부 변경 감지한다.
+     */
+    @Benchmark
+    public int findAllReadWrite() {
+        return readWriteTx.execute(status -> memberJpaRepository.findAll().size());
+    }
+
+    /**
+     * 읽기 전용 트랜잭션: FlushMode.MANUAL + 읽기 전용 세션.
+     */
+    @Benchmark
+    public int findAllReadOnlyTransaction() {
+        return readOnlyTx.execute(status -> memberJpaRepository.findAll().size());
+    }
+
+    /**
+     * 힌트 없는 페치 조인 기준선.
+     */
+    @Benchmark
+    public int findMemberFetchReadWrite() {
+        return readWriteTx.execute(status -> em.createQuery("select m from Member m join fetch m.team", Member.class)
+                .getResultList().stream()
+                .mapToInt(member -> member.getTeam().getName().length()).sum());
+    }
+
+    /**
+     * 쓰기 트랜잭션 안이지만 findMemberFetch의 readOnly 힌트로 스냅샷을 만들지 않는다.
+     */
+    @Benchmark
+    public int findMemberFetchReadOnlyHint() {
+        return readWriteTx.execute(status -> {
+            List<Member> members = memberRepository.findMemberFetch();
+            return members.stream().mapToInt(member -> member.getTeam().getName().length()).sum();
+        });
+    }
+}
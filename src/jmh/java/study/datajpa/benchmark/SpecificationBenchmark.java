@@ -0,0 +1,80 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberFilter;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 같은 조건 조합을 findAll(Specification)으로 매번 Criteria를 만들어 조회할 때와, 모양별로 만들어 둔 JPQL을 재사용할 때 비교.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpecificationBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"username", "teamName", "both"})
+    String combination;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spec");
+        BenchmarkContext.seed(context, memberCount);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        tx.setReadOnly(true);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private MemberFilter randomFilter() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = BenchmarkContext.username(random.nextInt(memberCount));
+        String teamName = "team" + random.nextInt(memberCount / BenchmarkContext.MEMBERS_PER_TEAM);
+        switch (combination) {
+            case "username":
+                return MemberFilter.of(username, null);
+            case "teamName":
+                return MemberFilter.of(null, teamName);
+            default:
+                return MemberFilter.of(username, teamName);
+        }
+    }
+
+    @Benchmark
+    public List<Member> specification() {
+        MemberFilter filter = randomFilter();
+        return tx.execute(status -> memberRepository.findAll(filter.toSpecification()));
+    }
+
+    @Benchmark
+    public List<Member> compiled() {
+        MemberFilter filter = randomFilter();
+        return tx.execute(status -> memberRepository.search(filter));
+    }
+}
@@ -1,14 +1,21 @@
 package study.datajpa;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.audit.AuditContext;
+import study.datajpa.audit.TransactionAuditorAware;
+import study.datajpa.audit.TransactionDateTimeProvider;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -17,7 +24,17 @@ public class DataJpaApplication {
 	}
 
 	@Bean
-	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString()); // 실제로는 세션에서 ID를 꺼내는 등의 처리를 해주면 된다.
+	public AuditorAware<String> auditorProvider(
+			@Value("${datajpa.audit.per-transaction:true}") boolean perTransaction) {
+		AuditorAware<String> auditor = () -> Optional.of(UUID.randomUUID().toString()); // 실제로는 세션에서 ID를 꺼내는 등의 처리를 해주면 된다.
+		return perTransaction ? new TransactionAuditorAware<>(auditor) : auditor;
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider(
+			@Value("${datajpa.audit.per-transaction:true}") boolean perTransaction) {
+		Clock clock = Clock.systemDefaultZone();
+		AuditContext.setEnabled(perTransaction); // JpaBaseEntity의 @PrePersist/@PreUpdate도 같은 설정을 따른다
+		return perTransaction ? new TransactionDateTimeProvider(clock) : () -> Optional.of(LocalDateTime.now(clock));
 	}
 }
@@ -0,0 +1,105 @@
+package study.datajpa.audit;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 현재 트랜잭션에서 쓸 감사 시각과 작성자를 들고 있는다.
+ * 작성자는 트랜잭션 동안 한 번만 구하고, 시각은 flush 한 번 동안 같은 값을 쓴다(flush가 시작할 때 비우고 끝나면 다시 비운다).
+ * flush 밖에서 불리는 @PrePersist는 persist 시점마다 새로 구한다. 그렇지 않으면 persist 사이에 시간이 흘러도
+ * 마지막 flush 이후 첫 persist 시각을 계속 쓰게 된다.
+ * 트랜잭션 동기화 객체로 등록하므로 REQUIRES_NEW 로 트랜잭션이 중단되면 안쪽 트랜잭션은 자기 값을 따로 갖는다.
+ * 트랜잭션 밖에서는 캐시하지 않고 매번 새로 구한다.
+ */
+public final class AuditContext implements TransactionSynchronization {
+
+    // datajpa.audit.per-transaction. 스프링 빈이 아닌 JPA 콜백(JpaBaseEntity)도 같은 설정을 따르도록 정적으로 둔다
+    private static volatile boolean enabled = true;
+
+    private LocalDateTime now;
+    private boolean flushing;
+    private Optional<?> auditor;
+
+    private AuditContext() {
+    }
+
+    public static LocalDateTime now() {
+        return now(Clock.systemDefaultZone());
+    }
+
+    /**
+     * false면 캐시하지 않고 매번 새로 구한다. 애플리케이션 시작 시 datajpa.audit.per-transaction 값으로 정해진다.
+     */
+    public static void setEnabled(boolean enabled) {
+        AuditContext.enabled = enabled;
+    }
+
+    public static LocalDateTime now(Clock clock) {
+        if (!enabled) {
+            return LocalDateTime.now(clock);
+        }
+        AuditContext context = current(true);
+        if (context == null || !context.flushing) {
+            return LocalDateTime.now(clock);
+        }
+        if (context.now == null) {
+            context.now = LocalDateTime.now(clock);
+        }
+        return context.now;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<T> auditor(Supplier<Optional<T>> resolver) {
+        AuditContext context = current(true);
+        if (context == null) {
+            return resolver.get();
+        }
+        if (context.auditor == null) {
+            context.auditor = resolver.get();
+        }
+        return (Optional<T>) context.auditor;
+    }
+
+    /**
+     * 하이버네이트 flush가 시작할 때 불린다. 이 flush에서 처리하는 엔티티는 처음 구한 시각 하나를 같이 쓴다.
+     */
+    static void flushStarted() {
+        AuditContext context = current(true);
+        if (context != null) {
+            context.now = null;
+            context.flushing = true;
+        }
+    }
+
+    /**
+     * 하이버네이트 flush가 끝났을 때 불린다. 다음 flush에 들어갈 엔티티는 새 시각을 받는다.
+     */
+    static void flushed() {
+        AuditContext context = current(false);
+        if (context != null) {
+            context.now = null;
+            context.flushing = false;
+        }
+    }
+
+    private static AuditContext current(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof AuditContext) {
+                return (AuditContext) synchronization;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        AuditContext context = new AuditContext();
+        TransactionSynchronizationManager.registerSynchronization(context);
+        return context;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.audit;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * hibernate.session.events.auto 로 세션마다 등록된다. flush 동안만 감사 시각을 하나로 묶고, 시작과 끝에서 캐시를 버린다.
+ */
+public class AuditFlushListener extends BaseSessionEventListener {
+
+    @Override
+    public void flushStart() {
+        AuditContext.flushStarted();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        AuditContext.flushed();
+    }
+}
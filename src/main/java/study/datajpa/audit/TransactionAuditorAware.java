@@ -0,0 +1,21 @@
+package study.datajpa.audit;
+
+import java.util.Optional;
+import org.springframework.data.domain.AuditorAware;
+
+/**
+ * 실제 작성자 조회(delegate)를 트랜잭션마다 한 번만 하도록 감싼다.
+ */
+public class TransactionAuditorAware<T> implements AuditorAware<T> {
+
+    private final AuditorAware<T> delegate;
+
+    public TransactionAuditorAware(AuditorAware<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<T> getCurrentAuditor() {
+        return AuditContext.auditor(delegate::getCurrentAuditor);
+    }
+}
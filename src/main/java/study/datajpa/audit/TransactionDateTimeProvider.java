@@ -0,0 +1,23 @@
+package study.datajpa.audit;
+
+import java.time.Clock;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+import org.springframework.data.auditing.DateTimeProvider;
+
+/**
+ * @CreatedDate/@LastModifiedDate 값을 flush 단위로 하나만 만든다.
+ */
+public class TransactionDateTimeProvider implements DateTimeProvider {
+
+    private final Clock clock;
+
+    public TransactionDateTimeProvider(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(AuditContext.now(clock));
+    }
+}
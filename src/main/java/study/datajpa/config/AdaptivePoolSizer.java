@@ -0,0 +1,99 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import study.datajpa.monitor.ConnectionMetricsDataSource;
+
+/**
+ * 주기마다 커넥션 평균 대기 시간을 보고 Hikari 최대 풀 크기를 [min, max] 안에서 조절한다.
+ * 평균 대기가 growAbove를 넘거나 기다리는 스레드가 있으면 step만큼 늘리고,
+ * 평균 대기가 shrinkBelow 미만이고 놀고 있는 커넥션이 step 이상이면 step만큼 줄인다.
+ * 줄어든 만큼의 유휴 커넥션은 Hikari가 idleTimeout이 지나면 닫는다(그래서 minimumIdle을 min으로 낮춰 둔다).
+ */
+@Slf4j
+public class AdaptivePoolSizer implements DisposableBean {
+
+    private final HikariConfigMXBean config;
+    private final HikariPoolMXBean pool;
+    private final ConnectionMetricsDataSource metrics;
+    private final int min;
+    private final int max;
+    private final int step;
+    private final long growAboveNanos;
+    private final long shrinkBelowNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "adaptive-pool-sizer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long lastCount;
+    private long lastNanos;
+
+    public AdaptivePoolSizer(HikariConfigMXBean config, HikariPoolMXBean pool, ConnectionMetricsDataSource metrics,
+            int min, int max, int step, Duration growAbove, Duration shrinkBelow) {
+        if (min < 1 || min > max || step < 1) {
+            throw new IllegalArgumentException("Invalid pool bounds: min=" + min + ", max=" + max + ", step=" + step);
+        }
+        this.config = config;
+        this.pool = pool;
+        this.metrics = metrics;
+        this.min = min;
+        this.max = max;
+        this.step = step;
+        this.growAboveNanos = growAbove.toNanos();
+        this.shrinkBelowNanos = shrinkBelow.toNanos();
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), min));
+        config.setMaximumPoolSize(Math.max(min, Math.min(max, config.getMaximumPoolSize())));
+        this.lastCount = metrics.getAcquireCount();
+        this.lastNanos = metrics.getAcquireNanos();
+    }
+
+    public void start(Duration interval) {
+        // 예외가 밖으로 나가면 이후 실행이 모두 취소되므로 여기서 삼킨다
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                adjust();
+            } catch (RuntimeException e) {
+                log.warn("pool size adjustment failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void adjust() {
+        long count = metrics.getAcquireCount();
+        long nanos = metrics.getAcquireNanos();
+        long acquired = count - lastCount;
+        long averageWait = acquired == 0 ? 0 : (nanos - lastNanos) / acquired;
+        lastCount = count;
+        lastNanos = nanos;
+
+        int current = config.getMaximumPoolSize();
+        int target = current;
+        if (averageWait > growAboveNanos || pool.getThreadsAwaitingConnection() > 0) {
+            target = Math.min(max, current + step);
+        } else if (averageWait < shrinkBelowNanos && pool.getIdleConnections() >= step) {
+            target = Math.max(min, current - step);
+        }
+        if (target != current) {
+            log.info("maximum pool size {} -> {} (average wait {}ms, waiting threads {})", current, target,
+                    TimeUnit.NANOSECONDS.toMillis(averageWait), pool.getThreadsAwaitingConnection());
+            config.setMaximumPoolSize(target);
+        }
+    }
+
+    public int getMaximumPoolSize() {
+        return config.getMaximumPoolSize();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncRepositoryConfig {
+
+    /**
+     * datajpa.async.threads를 정하지 않으면 시작할 때 커넥션 풀의 maximumPoolSize를 읽어 스레드 수로 쓴다.
+     * spring.datasource.hikari.* 값을 따로 읽으면 라우팅 모드(datajpa.datasource.primary.*)에서 어긋나기 때문이다.
+     * 라우팅 모드에서는 트랜잭션 밖에서 unwrap 하므로 프라이머리 풀 크기를 따른다.
+     * 적응형 풀 크기 조절로 나중에 바뀐 크기는 따라가지 않는다.
+     */
+    @Bean
+    public BoundedRepositoryExecutor repositoryExecutor(DataSource dataSource,
+            @Value("${datajpa.async.threads:0}") int threads,
+            @Value("${datajpa.async.max-in-flight:200}") int maxInFlight) throws SQLException {
+        if (threads < 1) {
+            threads = dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getHikariConfigMXBean().getMaximumPoolSize()
+                    : 10;
+        }
+        return new BoundedRepositoryExecutor(threads, maxInFlight);
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import study.datajpa.monitor.ConnectionMetricsDataSource;
+
+/**
+ * 리포지토리 호출을 비동기로 돌리는 풀. 스레드 수는 커넥션 풀 크기에 맞춰서 커넥션을 기다리며 노는 스레드가 없게 하고,
+ * 대기 중인 작업까지 포함한 개수를 세마포어로 제한한다. 한도가 차면 기다리지 않고 바로
+ * RejectedExecutionException으로 실패한 future를 돌려준다. 호출하는 쪽은 대개 톰캣 요청 스레드라서
+ * 여기서 기다리면 비동기로 바꾼 의미가 없다. 대기는 max-in-flight 안의 큐가 맡는다.
+ */
+public class BoundedRepositoryExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlight;
+
+    public BoundedRepositoryExecutor(int threads, int maxInFlight) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), // 세마포어가 길이를 제한한다
+                runnable -> new Thread(runnable, "repository-" + sequence.incrementAndGet()));
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many repository calls in flight"));
+        }
+        try {
+            // 커넥션 메트릭의 route 태그가 요청 경로로 남도록 넘긴다
+            return CompletableFuture.supplyAsync(ConnectionMetricsDataSource.propagateRoute(work), executor)
+                    .whenComplete((result, error) -> inFlight.release());
+        } catch (RejectedExecutionException e) { // 종료 중
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int getAvailablePermits() {
+        return inFlight.availablePermits();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
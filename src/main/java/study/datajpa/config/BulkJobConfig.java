@@ -0,0 +1,25 @@
+package study.datajpa.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BulkJobConfig {
+
+    /**
+     * 벌크 작업 청크를 돌리는 전용 풀. 큐가 차면 제출한 스레드가 직접 실행해서 자연스럽게 속도가 조절된다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkJobExecutor(@Value("${datajpa.bulk-job.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism * 2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bulk-job-");
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.config;
+
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate에는 StatementInspector를 하나만 등록할 수 있어서 여러 개를 차례로 호출한다.
+ */
+public class CompositeStatementInspector implements StatementInspector {
+
+    private final List<StatementInspector> inspectors;
+
+    public CompositeStatementInspector(List<StatementInspector> inspectors) {
+        this.inspectors = List.copyOf(inspectors);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String inspected = sql;
+        for (StatementInspector inspector : inspectors) {
+            inspected = inspector.inspect(inspected);
+        }
+        return inspected;
+    }
+}
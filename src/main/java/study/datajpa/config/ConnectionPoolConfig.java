@@ -0,0 +1,88 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import study.datajpa.monitor.ConnectionMetricsDataSource;
+
+@Configuration
+public class ConnectionPoolConfig {
+
+    /**
+     * 커넥션 풀 DataSource를 {@link ConnectionMetricsDataSource}로 감싼다.
+     * 라우팅/지연 프록시는 실제 풀이 아니므로 건너뛴다(라우팅 모드의 두 풀은 RoutingDataSourceConfig에서 감싼다).
+     */
+    @Bean
+    public static ConnectionMetricsPostProcessor connectionMetricsDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionMetricsPostProcessor(meterRegistry);
+    }
+
+    /**
+     * DataSource를 감싸는 후처리기 중 가장 먼저 돌아서 풀 바로 바깥에 붙는다.
+     * 그래야 풀 대기 시간만 재고, 다른 프록시(느린 쿼리 로그)가 쓰는 시간은 섞이지 않는다.
+     */
+    static class ConnectionMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+        static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ConnectionMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof ConnectionMetricsDataSource
+                    || bean instanceof AbstractRoutingDataSource || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            return new ConnectionMetricsDataSource((DataSource) bean, beanName, meterRegistry::getIfAvailable);
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+
+    /**
+     * 엔티티 매니저 팩토리가 뜬 뒤(풀이 시작된 뒤)에 만든다.
+     * 라우팅 모드에서는 프라이머리 풀만 조절한다. 트랜잭션 밖에서 unwrap 하면 라우팅 DataSource가 프라이머리를 고르기 때문이다.
+     * 레플리카 풀은 datajpa.datasource.replica.maximum-pool-size로 정한 크기 그대로 쓴다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datajpa.datasource.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+            @Value("${datajpa.datasource.adaptive.min-size:5}") int minSize,
+            @Value("${datajpa.datasource.adaptive.max-size:30}") int maxSize,
+            @Value("${datajpa.datasource.adaptive.step:2}") int step,
+            @Value("${datajpa.datasource.adaptive.grow-above:20ms}") Duration growAbove,
+            @Value("${datajpa.datasource.adaptive.shrink-below:1ms}") Duration shrinkBelow,
+            @Value("${datajpa.datasource.adaptive.interval:10s}") Duration interval) throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        if (hikari.getHikariPoolMXBean() == null) {
+            try (Connection connection = dataSource.getConnection()) { // 풀을 시작시킨다
+                connection.isValid(1);
+            }
+        }
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(hikari.getHikariConfigMXBean(), hikari.getHikariPoolMXBean(),
+                dataSource.unwrap(ConnectionMetricsDataSource.class), minSize, maxSize, step, growAbove, shrinkBelow);
+        sizer.start(interval);
+        return sizer;
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import study.datajpa.monitor.SlowQueryListener;
+import study.datajpa.monitor.SlowQueryLog;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * DataSource를 datasource-proxy로 감싸서 느린 쿼리를 {@link SlowQueryLog}에 남긴다.
+     * {@link ConnectionPoolConfig}의 커넥션 메트릭 후처리기 다음에 돌아서 항상 그 바깥을 감싼다.
+     * 그래서 EXPLAIN이 빌리는 커넥션도 커넥션 메트릭에 잡힌다.
+     */
+    @Bean
+    public static SlowQueryDataSourcePostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryLog> slowQueryLog,
+            @Value("${datajpa.slow-query.threshold:200ms}") Duration threshold) {
+        return new SlowQueryDataSourcePostProcessor(slowQueryLog, threshold);
+    }
+
+    static class SlowQueryDataSourcePostProcessor implements DestructionAwareBeanPostProcessor, Ordered {
+
+        static final int ORDER = ConnectionPoolConfig.ConnectionMetricsPostProcessor.ORDER + 1;
+
+        private final ObjectProvider<SlowQueryLog> slowQueryLog;
+        private final Duration threshold;
+        // 리스너의 EXPLAIN 스레드는 감싼 DataSource 빈이 없어질 때 같이 멈춘다
+        private final Map<String, SlowQueryListener> listeners = new ConcurrentHashMap<>();
+
+        SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog, Duration threshold) {
+            this.slowQueryLog = slowQueryLog;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // 라우팅 DataSource는 바깥 dataSource의 대상일 뿐이므로 바깥 쪽에서 한 번만 감싼다
+            if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource
+                    || bean instanceof AbstractRoutingDataSource) {
+                return bean;
+            }
+            DataSource dataSource = (DataSource) bean;
+            SlowQueryListener listener = new SlowQueryListener(threshold, slowQueryLog.getObject(), dataSource);
+            listeners.put(beanName, listener);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .build();
+        }
+
+        @Override
+        public boolean requiresDestruction(Object bean) {
+            return bean instanceof DataSource; // 순서가 더 늦은 후처리기가 한 번 더 감쌀 수 있으므로 이름으로 찾는다
+        }
+
+        @Override
+        public void postProcessBeforeDestruction(Object bean, String beanName) {
+            SlowQueryListener listener = listeners.remove(beanName);
+            if (listener != null) {
+                listener.destroy();
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
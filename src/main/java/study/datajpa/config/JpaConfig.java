@@ -0,0 +1,25 @@
+package study.datajpa.config;
+
+import java.util.List;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.monitor.QueryCountInspector;
+import study.datajpa.monitor.QueryPlanInspector;
+import study.datajpa.monitor.QueryPlanStats;
+import study.datajpa.repository.MemberCountCache;
+
+@Configuration
+public class JpaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(MemberCountCache countCache,
+            QueryPlanStats queryPlanStats) {
+        CompositeStatementInspector inspector = new CompositeStatementInspector(List.of(
+                new MemberCountInvalidator(countCache),
+                new QueryCountInspector(),
+                new QueryPlanInspector(queryPlanStats)));
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.config;
+
+import java.util.regex.Pattern;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.repository.MemberCountCache;
+
+/**
+ * Hibernate가 실행하는 SQL을 보고 member 테이블을 건드리는 DML이면 count 캐시를 비운다.
+ * save/delete는 물론이고 영속성 컨텍스트를 거치지 않는 벌크 연산(bulkAgePlus)도 함께 잡힌다.
+ * 커밋 전에 다른 트랜잭션이 옛 count를 다시 캐시할 수 있으므로 커밋한 뒤에 한 번 더 비운다.
+ */
+public class MemberCountInvalidator implements StatementInspector {
+
+    // deleteAllInBatch는 뒤에 아무것도 없는 "delete from member"를 만들므로 공백이 아니라 단어 경계로 끊는다
+    private static final Pattern MEMBER_DML = Pattern.compile(
+            "\\s*(insert\\s+into|update|delete\\s+from)\\s+member\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MemberCountCache countCache;
+
+    public MemberCountInvalidator(MemberCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (MEMBER_DML.matcher(sql).lookingAt()) {
+            countCache.invalidate(); // 같은 트랜잭션 안에서 읽는 count도 맞도록
+            invalidateAfterCommit();
+        }
+        return sql;
+    }
+
+    private void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof AfterCommitInvalidation) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new AfterCommitInvalidation(countCache));
+    }
+
+    private static class AfterCommitInvalidation implements TransactionSynchronization {
+
+        private final MemberCountCache countCache;
+
+        private AfterCommitInvalidation(MemberCountCache countCache) {
+            this.countCache = countCache;
+        }
+
+        @Override
+        public void afterCommit() {
+            countCache.invalidate();
+        }
+    }
+}
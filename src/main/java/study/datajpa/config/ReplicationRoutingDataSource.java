@@ -0,0 +1,102 @@
+package study.datajpa.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * 읽기 전용 트랜잭션은 레플리카로, 나머지는 프라이머리로 보낸다.
+ * 트랜잭션의 readOnly 여부가 정해진 뒤에 커넥션을 골라야 하므로 LazyConnectionDataSourceProxy로 감싸서 쓴다.
+ * 레플리카에 연결할 수 없거나 지연(lagQuery 결과, 초)이 maxLag를 넘으면 다시 괜찮아질 때까지 프라이머리로 보낸다.
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean replicaUsable = true;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica, String lagQuery, Duration maxLag) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    public void startLagCheck(Duration interval) {
+        lagChecker.scheduleWithFixedDelay(this::checkReplica, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaUsable) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    void checkReplica() {
+        boolean usable;
+        try (Connection connection = replica.getConnection()) {
+            usable = StringUtils.hasText(lagQuery) ? lagWithinLimit(connection) : connection.isValid(1);
+        } catch (SQLException e) {
+            log.debug("replica check failed", e);
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.warn("replica is now {}", usable ? "in use" : "bypassed, routing reads to primary");
+        }
+        replicaUsable = usable;
+    }
+
+    private boolean lagWithinLimit(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() && rs.getDouble(1) <= maxLag.toMillis() / 1000.0;
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lagChecker.shutdownNow();
+        close(primary);
+        close(replica);
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import study.datajpa.monitor.RepositoryMethodInterceptor;
+import study.datajpa.monitor.RepositoryMetricsInterceptor;
+
+@Configuration
+public class RepositoryInstrumentationConfig {
+
+    /**
+     * 모든 data jpa 리포지토리 프록시에 {@link RepositoryMethodInterceptor}, {@link RepositoryMetricsInterceptor}를 붙인다.
+     * BeanPostProcessor는 일찍 만들어지므로 MeterRegistry는 호출 시점에 꺼낸다.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodInterceptorPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(
+                            factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                // 트랜잭션 인터셉터보다 바깥에 둬서, 트랜잭션 시작 때 커넥션을 얻는 것도 이 메서드 몫으로 본다
+                                int outermost = proxyFactory.indexOf(ExposeInvocationInterceptor.ADVISOR) + 1;
+                                proxyFactory.addAdvice(outermost, new RepositoryMethodInterceptor(
+                                        repositoryInformation.getRepositoryInterface()));
+                                proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                                        meterRegistry::getIfAvailable, repositoryInformation));
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.datajpa.monitor.ConnectionMetricsDataSource;
+
+/**
+ * datajpa.datasource.routing.enabled=true 이면 spring.datasource 대신 primary/replica 두 풀을 만든다.
+ * 두 풀은 빈으로 등록하지 않고, 라우팅 DataSource가 종료할 때 함께 닫는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReplicationRoutingDataSource replicationRoutingDataSource(Environment environment,
+            @Value("${datajpa.datasource.routing.lag-query:}") String lagQuery,
+            @Value("${datajpa.datasource.routing.max-lag:5s}") Duration maxLag,
+            @Value("${datajpa.datasource.routing.check-interval:5s}") Duration checkInterval,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = binder.bind("datajpa.datasource.primary", Bindable.ofInstance(new HikariDataSource()))
+                .get();
+        HikariDataSource replica = binder.bind("datajpa.datasource.replica", Bindable.ofInstance(new HikariDataSource()))
+                .get();
+        primary.setPoolName("primary");
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(
+                new ConnectionMetricsDataSource(primary, "primary", meterRegistry::getIfAvailable),
+                new ConnectionMetricsDataSource(replica, "replica", meterRegistry::getIfAvailable),
+                lagQuery, maxLag);
+        routing.startLagCheck(checkInterval);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationRoutingDataSource replicationRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicationRoutingDataSource);
+    }
+}
@@ -1,22 +1,41 @@
 package study.datajpa.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.CountMode;
+import study.datajpa.repository.MemberAsyncRepository;
+import study.datajpa.repository.MemberCursor;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.Window;
+import study.datajpa.service.ExportFormat;
+import study.datajpa.service.MemberExportService;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberApiController {
 
+    private static final int MAX_WINDOW_SIZE = 2000;
+
     private final MemberRepository memberRepository;
+    private final MemberAsyncRepository memberAsyncRepository;
+    private final MemberExportService memberExportService;
 
     @PostConstruct
     public void init() throws InterruptedException {
@@ -39,10 +58,57 @@ public class MemberApiController {
     }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(Pageable pageable) {
-        Page<Member> pageEntity = memberRepository.findAll(pageable);
-        pageEntity.getPageable().getPageNumber();
-        return pageEntity.map(MemberDto::new);
+    public Page<MemberDto> list(Pageable pageable,
+            @RequestParam(value = "exactCount", defaultValue = "false") boolean exactCount) {
+        return memberRepository.findDtoPage(pageable, exactCount ? CountMode.EXACT : CountMode.CACHED);
+    }
+
+    /**
+     * cursor 파라미터가 있으면 키셋 페이징으로 응답한다. 첫 페이지는 cursor= 로 요청하고,
+     * 이후에는 응답의 nextCursor를 그대로 넘기면 된다. size가 1보다 작거나 커서를 해석할 수 없으면 400으로 응답한다.
+     */
+    @GetMapping(value = "/members", params = "cursor")
+    public Window<MemberDto> listWindow(@RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be positive: " + size);
+        }
+        try {
+            MemberCursor.decode(cursor); // 리포지토리 안에서 실패하면 예외가 변환되어 500이 되므로 먼저 확인한다
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return memberRepository.findDtoWindow(cursor, Math.min(size, MAX_WINDOW_SIZE));
+    }
+
+    /**
+     * /async 아래는 DB 작업을 repositoryExecutor로 넘기고 톰캣 스레드는 바로 반납한다.
+     * 느린 DB 때문에 톰캣 풀이 다 차서 다른 요청까지 막히는 일이 없고, 한도를 넘으면 503으로 바로 거절한다.
+     */
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<ResponseEntity<String>> findMemberAsync(@PathVariable("id") Long id) {
+        return memberAsyncRepository.findById(id).thenApply(member -> member
+                .map(found -> ResponseEntity.ok(found.getUsername()))
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/async/members")
+    public CompletableFuture<Page<MemberDto>> listAsync(Pageable pageable,
+            @RequestParam(value = "exactCount", defaultValue = "false") boolean exactCount) {
+        return memberAsyncRepository.findDtoPage(pageable, exactCount ? CountMode.EXACT : CountMode.CACHED);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> tooBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(out -> memberExportService.export(format, out));
     }
 
 
@@ -16,9 +16,12 @@ public class MemberDto {
         this.teamName = teamName;
     }
 
+    /**
+     * 지연 로딩되는 team은 건드리지 않는다(teamName은 비워 둔다). 팀 이름까지 필요하면
+     * 생성자 프로젝션으로 조회하는 findDtoPage/findDtoWindow를 쓴다.
+     */
     public MemberDto(Member m) {
         id = m.getId();
         username = m.getUsername();
-        teamName = "임시값";
     }
 }
@@ -0,0 +1,18 @@
+package study.datajpa.entity;
+
+import javax.persistence.MappedSuperclass;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 식별자를 직접 할당하는 엔티티의 공통 부모.
+ * id가 이미 채워져 있으면 data jpa는 save()에서 merge를 호출하고, merge는 DB에서 먼저 SELECT 해본다.
+ * 아직 한 번도 저장되지 않은 엔티티는 createdDate가 비어 있으므로 이것으로 새 엔티티를 판단해서 바로 persist 하게 한다.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity<ID> extends BaseEntity implements Persistable<ID> {
+
+    @Override
+    public boolean isNew() {
+        return getCreatedDate() == null;
+    }
+}
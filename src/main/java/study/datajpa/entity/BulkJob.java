@@ -0,0 +1,65 @@
+package study.datajpa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 회원 나이 일괄 증가 작업. 시작 시점의 id 범위를 고정해 두고 chunkSize 단위로 나눠서 처리한다.
+ */
+@Entity
+@Getter
+@ToString(of = {"id", "age", "minId", "maxId", "chunkSize", "status"})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_job_seq_generator")
+    @SequenceGenerator(name = "bulk_job_seq_generator", sequenceName = "bulk_job_seq")
+    @Column(name = "bulk_job_id")
+    private Long id;
+
+    private int age;
+    private long minId;
+    private long maxId;
+    private int chunkSize;
+
+    @Enumerated(EnumType.STRING)
+    private BulkJobStatus status;
+
+    public BulkJob(int age, long minId, long maxId, int chunkSize) {
+        this.age = age;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.chunkSize = chunkSize;
+        this.status = BulkJobStatus.STARTED;
+    }
+
+    public int getTotalChunks() {
+        if (maxId < minId) {
+            return 0;
+        }
+        return (int) ((maxId - minId) / chunkSize + 1);
+    }
+
+    public long chunkStartId(int chunkIndex) {
+        return minId + (long) chunkIndex * chunkSize;
+    }
+
+    public long chunkEndId(int chunkIndex) {
+        return Math.min(chunkStartId(chunkIndex) + chunkSize - 1, maxId);
+    }
+
+    public void complete() {
+        this.status = BulkJobStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 끝난 청크의 체크포인트. 청크의 update와 같은 트랜잭션에서 저장되므로,
+ * 이 행이 있으면 해당 청크는 정확히 한 번 반영된 것이다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"bulk_job_id", "chunk_index"}))
+public class BulkJobChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_job_chunk_seq_generator")
+    @SequenceGenerator(name = "bulk_job_chunk_seq_generator", sequenceName = "bulk_job_chunk_seq", allocationSize = 50)
+    @Column(name = "bulk_job_chunk_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bulk_job_id")
+    private BulkJob job;
+
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+    private int updatedCount;
+
+    public BulkJobChunk(BulkJob job, int chunkIndex, int updatedCount) {
+        this.job = job;
+        this.chunkIndex = chunkIndex;
+        this.updatedCount = updatedCount;
+    }
+}
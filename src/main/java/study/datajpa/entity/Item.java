@@ -2,22 +2,19 @@ package study.datajpa.entity;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Entity
 @Getter
-public class Item /*implements Persistable<String>*/ {
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Item extends AssignedIdEntity<Long> {
 
     @Id
     private Long id;
 
-//    @Override
-//    public String getId() {
-//        return id;
-//    }
-//
-//    @Override
-//    public boolean isNew() {
-//        return !StringUtils.hasText(id);
-//    }
+    public Item(Long id) {
+        this.id = id;
+    }
 }
@@ -6,23 +6,37 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
 @Setter
 @ToString(of = {"id", "username", "age"})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_age", columnList = "age, member_id"), // 나이 조건 + id 순 정렬(키셋, 작업 큐)
+        @Index(name = "idx_member_team_id", columnList = "team_id") // H2와 달리 FK에 인덱스를 자동으로 만들지 않는 DB도 있다
+})
 public class Member extends BaseEntity {
 
+    // IDENTITY는 insert 시점에 id를 받아와야 해서 JDBC 배치가 꺼진다. 시퀀스를 50개씩 미리 당겨 쓴다(pooled).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
 
@@ -30,6 +44,10 @@ public class Member extends BaseEntity {
 
     private int age;
 
+    @Version // 벌크 update에서도 함께 올려야 낙관적 락이 변경을 알아챈다
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
@@ -0,0 +1,188 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 커넥션을 얻기까지 기다린 시간과 돌려줄 때까지 쥐고 있던 시간을, 커넥션을 얻은 리포지토리 메서드와 HTTP 경로별로 기록한다.
+ * <ul>
+ *     <li>datasource.connection.acquire (timer) - getConnection 대기 시간</li>
+ *     <li>datasource.connection.usage (timer) - getConnection ~ close</li>
+ *     <li>datasource.connection.pending (long task timer) - 지금 커넥션을 기다리는 호출</li>
+ * </ul>
+ * 태그: pool, method(리포지토리 메서드, 없으면 none), route(요청 URL 패턴, 없으면 none)
+ * route는 요청 스레드에서만 보이므로, 다른 스레드로 넘기는 작업은 {@link #propagateRoute(Supplier)}로 감싸야 태그가 붙는다.
+ */
+public class ConnectionMetricsDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final String NONE = "none";
+    private static final ThreadLocal<String> PROPAGATED_ROUTE = new ThreadLocal<>();
+
+    private final String pool;
+    private final Supplier<MeterRegistry> registry;
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ConnectionMetricsDataSource(DataSource target, String pool, Supplier<MeterRegistry> registry) {
+        super(target);
+        this.pool = pool;
+        this.registry = registry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        MeterRegistry meterRegistry = registry.get();
+        // 적응형 풀 크기 조절이 읽는 누적값은 레지스트리가 없어도 센다
+        Meters meters = meterRegistry != null ? meters(meterRegistry) : null;
+        LongTaskTimer.Sample pending = meters != null ? meters.pending.start() : null;
+        long startedAt = System.nanoTime();
+        Connection connection;
+        try {
+            connection = super.getConnection();
+        } finally {
+            long waited = System.nanoTime() - startedAt;
+            acquireCount.increment();
+            acquireNanos.add(waited);
+            if (meters != null) {
+                pending.stop();
+                meters.acquire.record(waited, TimeUnit.NANOSECONDS);
+            }
+        }
+        return meters != null ? track(connection, meters.usage) : connection;
+    }
+
+    /**
+     * (method, route)마다 미터를 한 번만 등록해 두고 다시 쓴다. 커넥션을 얻을 때마다 builder로 찾으면
+     * 태그 정렬과 레지스트리 조회가 매번 든다. 레지스트리는 나중에 생길 수 있으므로 다른 레지스트리로 만든 것은 새로 만든다.
+     */
+    private Meters meters(MeterRegistry meterRegistry) {
+        String method = currentMethod();
+        String route = currentRoute();
+        String key = method + ' ' + route;
+        Meters meters = this.meters.get(key);
+        if (meters == null || meters.registry != meterRegistry) {
+            meters = new Meters(meterRegistry, Tags.of("pool", pool, "method", method, "route", route));
+            this.meters.put(key, meters);
+        }
+        return meters;
+    }
+
+    /**
+     * 지금까지 getConnection이 불린 횟수. {@link #getAcquireNanos()}와 함께 구간 평균 대기 시간을 구하는 데 쓴다.
+     */
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long getAcquireNanos() {
+        return acquireNanos.sum();
+    }
+
+    private static Connection track(Connection connection, Timer usage) {
+        long acquiredAt = System.nanoTime();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionMetricsDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        usage.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static String currentMethod() {
+        String method = RepositoryMethodContext.current();
+        return method != null ? method : NONE;
+    }
+
+    /**
+     * 지금 스레드의 route를 잡아 두었다가 work를 실행하는 스레드에서 그 route로 기록되게 한다.
+     * 요청이 끝난 뒤에 실행될 수 있으므로 요청 객체가 아니라 route 문자열을 넘긴다.
+     */
+    public static <T> Supplier<T> propagateRoute(Supplier<T> work) {
+        String route = currentRoute();
+        return () -> {
+            String previous = PROPAGATED_ROUTE.get();
+            PROPAGATED_ROUTE.set(route);
+            try {
+                return work.get();
+            } finally {
+                if (previous == null) {
+                    PROPAGATED_ROUTE.remove();
+                } else {
+                    PROPAGATED_ROUTE.set(previous);
+                }
+            }
+        };
+    }
+
+    private static String currentRoute() {
+        String propagated = PROPAGATED_ROUTE.get();
+        if (propagated != null) {
+            return propagated;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : NONE;
+    }
+
+    private static final class Meters {
+
+        private final MeterRegistry registry;
+        private final LongTaskTimer pending;
+        private final Timer acquire;
+        private final Timer usage;
+
+        private Meters(MeterRegistry registry, Tags tags) {
+            this.registry = registry;
+            this.pending = LongTaskTimer.builder("datasource.connection.pending").tags(tags).register(registry);
+            this.acquire = Timer.builder("datasource.connection.acquire").tags(tags).register(registry);
+            this.usage = Timer.builder("datasource.connection.usage").tags(tags).register(registry);
+        }
+    }
+
+    // 라우팅 DataSource가 종료할 때 감싼 풀까지 닫히도록
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+}
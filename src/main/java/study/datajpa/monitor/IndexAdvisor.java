@@ -0,0 +1,205 @@
+package study.datajpa.monitor;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시작할 때 리포지토리 쿼리 메서드의 SQL을 만들어 H2 EXPLAIN을 돌려 보고, 인덱스 없이 테이블 전체를 읽는 메서드를 알려준다.
+ * 파생 쿼리는 메서드 이름에서 조건만 뽑아 JPQL로 옮기고, @Query는 그대로 SQL로 번역한다. 쿼리를 실행하지는 않는다.
+ * WHERE가 없는 쿼리(findAll 등)는 원래 전체를 읽으므로 보지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.index-advisor.enabled", havingValue = "true")
+public class IndexAdvisor {
+
+    private final ApplicationContext applicationContext;
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSource dataSource;
+
+    private final List<String> explainedMethods = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, String> fullScans = Collections.synchronizedMap(new TreeMap<>());
+
+    public IndexAdvisor(ApplicationContext applicationContext, EntityManagerFactory emf, DataSource dataSource) {
+        this.applicationContext = applicationContext;
+        this.sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void advise() {
+        if (!isH2()) {
+            log.info("index advisor only understands H2 EXPLAIN output, skipped");
+            return;
+        }
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformationFor(domainType).ifPresent(this::advise);
+        }
+        fullScans.forEach((method, plan) -> log.warn("full table scan in {}:\n{}", method, plan));
+        log.info("index advisor explained {} query methods, {} full scans", explainedMethods.size(), fullScans.size());
+    }
+
+    public List<String> getExplainedMethods() {
+        return List.copyOf(explainedMethods);
+    }
+
+    /**
+     * 리포지토리 메서드 이름 → 전체 스캔이 들어간 실행 계획.
+     */
+    public Map<String, String> getFullScans() {
+        synchronized (fullScans) {
+            return new TreeMap<>(fullScans);
+        }
+    }
+
+    private void advise(RepositoryInformation information) {
+        String repositoryName = information.getRepositoryInterface().getSimpleName();
+        Class<?> domainType = information.getDomainType();
+        for (Method method : information.getQueryMethods()) {
+            String name = repositoryName + "." + method.getName();
+            try {
+                for (String sql : toSql(method, domainType)) {
+                    if (!sql.toLowerCase(Locale.ROOT).contains(" where ")) {
+                        continue;
+                    }
+                    String plan = explain(sql);
+                    explainedMethods.add(name);
+                    if (isFullScan(plan)) {
+                        fullScans.put(name, plan);
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("index advisor could not explain {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private List<String> toSql(Method method, Class<?> domainType) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null && !query.value().isEmpty()) {
+            if (query.nativeQuery()) {
+                return List.of(query.value().replaceAll(":\\w+", "?"));
+            }
+            return translate(query.value());
+        }
+        PartTree tree = new PartTree(method.getName(), domainType);
+        if (!tree.getParts().iterator().hasNext()) {
+            return List.of();
+        }
+        String entityName = sessionFactory.getMetamodel().entity(domainType).getName();
+        return translate("select x from " + entityName + " x where " + where(tree));
+    }
+
+    private List<String> translate(String jpql) {
+        return List.of(sessionFactory.getQueryPlanCache()
+                .getHQLQueryPlan(jpql, false, Collections.emptyMap())
+                .getSqlStrings());
+    }
+
+    // 값은 상관없으므로 파라미터 이름만 겹치지 않게 붙인다
+    private static String where(PartTree tree) {
+        AtomicInteger parameter = new AtomicInteger();
+        return tree.stream()
+                .map(or -> or.stream()
+                        .map(part -> condition(part, parameter))
+                        .collect(Collectors.joining(" and ", "(", ")")))
+                .collect(Collectors.joining(" or "));
+    }
+
+    private static String condition(Part part, AtomicInteger parameter) {
+        String property = "x." + part.getProperty().toDotPath();
+        switch (part.getType()) {
+            case IS_NULL:
+                return property + " is null";
+            case IS_NOT_NULL:
+                return property + " is not null";
+            case TRUE:
+                return property + " = true";
+            case FALSE:
+                return property + " = false";
+            case BETWEEN:
+                return property + " between :p" + parameter.incrementAndGet() + " and :p" + parameter.incrementAndGet();
+            case IN:
+                return property + " in :p" + parameter.incrementAndGet();
+            case NOT_IN:
+                return property + " not in :p" + parameter.incrementAndGet();
+            case LIKE:
+            case STARTING_WITH:
+            case ENDING_WITH:
+            case CONTAINING:
+                return property + " like :p" + parameter.incrementAndGet();
+            case GREATER_THAN:
+            case AFTER:
+                return property + " > :p" + parameter.incrementAndGet();
+            case GREATER_THAN_EQUAL:
+                return property + " >= :p" + parameter.incrementAndGet();
+            case LESS_THAN:
+            case BEFORE:
+                return property + " < :p" + parameter.incrementAndGet();
+            case LESS_THAN_EQUAL:
+                return property + " <= :p" + parameter.incrementAndGet();
+            case NEGATING_SIMPLE_PROPERTY:
+                return property + " <> :p" + parameter.incrementAndGet();
+            default:
+                return property + " = :p" + parameter.incrementAndGet();
+        }
+    }
+
+    String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            // H2는 파라미터를 상수로 접지 않고 계획을 세우므로 null로 채워도 같은 계획이 나온다
+            int parameterCount = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                ps.setNull(i, Types.NULL);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    static boolean isFullScan(String plan) {
+        return plan.contains(".tableScan");
+    }
+
+    private boolean isH2() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.monitor;
+
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 요청마다 실행된 SQL 수를 기록하고, 같은 SELECT가 반복되면 N+1 의심 로그를 남긴다.
+ */
+@Slf4j
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final int nPlusOneThreshold;
+
+    public QueryCountFilter(@Value("${datajpa.query-count.n-plus-one-threshold:3}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try (QueryCountScope scope = QueryCounter.start()) {
+            filterChain.doFilter(request, response);
+
+            log.debug("{} {} executed {} statements", request.getMethod(), request.getRequestURI(),
+                    scope.getStatementCount());
+            List<String> repeated = scope.findRepeatedSelects(nPlusOneThreshold);
+            if (!repeated.isEmpty()) {
+                log.warn("Possible N+1 on {} {}: {}", request.getMethod(), request.getRequestURI(), repeated);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+/**
+ * {@link QueryCounter#start()}로 연 집계 범위. try-with-resources로 닫는다.
+ */
+public class QueryCountScope implements AutoCloseable {
+
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int statementCount;
+
+    QueryCountScope() {
+    }
+
+    void record(String sql) {
+        statementCount++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * 쿼리 예산을 넘었으면 AssertionError로 실패한다. 메시지에 이 범위에서 나간 SQL과 횟수를 모두 담는다.
+     */
+    public void assertAtMost(int budget) {
+        if (statementCount > budget) {
+            throw new AssertionError("Expected at most " + budget + " statements but " + statementCount
+                    + " were executed:\n" + statements.entrySet().stream()
+                    .map(e -> e.getValue() + "x " + e.getKey())
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    /**
+     * 같은 SELECT가 threshold 번 이상 반복됐다면 N+1 의심 대상이다.
+     * (지연 로딩된 Member.team, Team.members 초기화가 대표적이다)
+     */
+    public List<String> findRepeatedSelects(int threshold) {
+        return statements.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .map(Entry::getKey)
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() {
+        QueryCounter.end(this);
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.monitor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 현재 스레드에서 실행되는 SQL을 세는 카운터.
+ * {@link #start()}로 연 범위(요청, 트랜잭션, 테스트 블록 등) 안에서 나간 SQL만 집계된다. 범위는 중첩될 수 있다.
+ */
+public class QueryCounter {
+
+    private static final ThreadLocal<Deque<QueryCountScope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    public static QueryCountScope start() {
+        QueryCountScope scope = new QueryCountScope();
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * work가 budget 개를 넘는 SQL을 실행하면 실패한다. 테스트에서 메서드/블록별 쿼리 예산을 선언할 때 쓴다.
+     * <pre>QueryCounter.withinBudget(1, () -> memberRepository.findMemberFetch());</pre>
+     */
+    public static void withinBudget(int budget, Runnable work) {
+        try (QueryCountScope scope = start()) {
+            work.run();
+            scope.assertAtMost(budget);
+        }
+    }
+
+    static void record(String sql) {
+        for (QueryCountScope scope : SCOPES.get()) {
+            scope.record(sql);
+        }
+    }
+
+    static void end(QueryCountScope scope) {
+        Deque<QueryCountScope> scopes = SCOPES.get();
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/queryplans : Hibernate 쿼리 플랜 캐시 히트율과 리포지토리 메서드별 SQL 모양 재사용률.
+ * 메서드별 값은 같은 SQL 문자열이 반복된 비율이라 플랜 캐시 히트율의 근사치다.
+ */
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    private final Statistics statistics;
+    private final QueryPlanStats queryPlanStats;
+
+    public QueryPlanEndpoint(EntityManagerFactory emf, QueryPlanStats queryPlanStats) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        this.queryPlanStats = queryPlanStats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queryPlans() {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        Map<String, Object> planCache = new LinkedHashMap<>();
+        planCache.put("hitCount", hits);
+        planCache.put("missCount", misses);
+        planCache.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("planCache", planCache);
+        result.put("repositoryMethodSqlShapes", queryPlanStats.snapshot());
+        return result;
+    }
+}
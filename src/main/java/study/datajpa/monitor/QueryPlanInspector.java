@@ -0,0 +1,21 @@
+package study.datajpa.monitor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryPlanInspector implements StatementInspector {
+
+    private final QueryPlanStats queryPlanStats;
+
+    public QueryPlanInspector(QueryPlanStats queryPlanStats) {
+        this.queryPlanStats = queryPlanStats;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String method = RepositoryMethodContext.current();
+        if (method != null) {
+            queryPlanStats.record(method, sql);
+        }
+        return sql;
+    }
+}
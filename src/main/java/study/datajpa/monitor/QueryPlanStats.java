@@ -0,0 +1,57 @@
+package study.datajpa.monitor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 리포지토리 메서드별로 SQL 모양(문자열이 똑같은 SQL)이 얼마나 재사용되는지 집계한다.
+ * 같은 메서드가 매번 다른 SQL을 만들면(IN 절 길이가 달라지는 등) 쿼리 플랜 캐시와 prepared statement 캐시를 못 쓴다.
+ * 하이버네이트 쿼리 플랜 캐시를 직접 읽는 값은 아니고 그 근사치다. 실제 플랜 캐시 히트율은 {@link QueryPlanEndpoint}의 planCache.
+ */
+@Component
+public class QueryPlanStats {
+
+    private static final int MAX_SHAPES_PER_METHOD = 1000;
+
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+    public void record(String method, String sql) {
+        methods.computeIfAbsent(method, key -> new MethodStats()).record(sql);
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        methods.forEach((method, stats) -> result.put(method, stats.toMap()));
+        return result;
+    }
+
+    private static class MethodStats {
+
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+        private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+
+        void record(String sql) {
+            statements.increment();
+            // 두 스레드가 같은 새 SQL을 동시에 봐도 add에 성공하는 쪽은 하나뿐이다
+            if (shapes.contains(sql)) {
+                reused.increment();
+            } else if (shapes.size() < MAX_SHAPES_PER_METHOD && !shapes.add(sql)) {
+                reused.increment();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            long total = statements.sum();
+            Map<String, Object> map = new TreeMap<>();
+            map.put("statements", total);
+            map.put("distinctSqlShapes", shapes.size());
+            map.put("sqlShapeReuseRatio", total == 0 ? 0.0 : (double) reused.sum() / total);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.monitor;
+
+/**
+ * 지금 스레드에서 실행 중인 리포지토리 메서드 이름(예: MemberRepository.findByNames).
+ * SQL 단위로 수집되는 정보를 어떤 리포지토리 메서드가 발생시켰는지 연결하는 데 쓴다.
+ */
+public class RepositoryMethodContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 바깥 리포지토리 메서드 이름. 끝나면 {@link #restore(String)}로 되돌린다.
+     */
+    static String enter(String method) {
+        String outer = CURRENT.get();
+        if (outer == null) { // 리포지토리가 다른 리포지토리를 부르면 바깥 메서드 기준으로 집계한다
+            CURRENT.set(method);
+        }
+        return outer;
+    }
+
+    static void restore(String outer) {
+        if (outer == null) {
+            CURRENT.remove();
+        }
+    }
+}
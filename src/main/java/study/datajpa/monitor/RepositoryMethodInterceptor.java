@@ -0,0 +1,26 @@
+package study.datajpa.monitor;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 리포지토리 프록시에 붙어서 호출 중인 메서드를 {@link RepositoryMethodContext}에 기록한다.
+ */
+public class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    public RepositoryMethodInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String outer = RepositoryMethodContext.enter(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            RepositoryMethodContext.restore(outer);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import study.datajpa.repository.Window;
+
+/**
+ * 리포지토리 메서드마다 지연 시간, 결과 행 수, 실행한 SQL 수를 Micrometer로 기록한다.
+ * 태그: repository, method, type(derived, query, native, specification, crud, custom)
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final Supplier<MeterRegistry> registry;
+    private final RepositoryInformation repositoryInformation;
+    private final String repositoryName;
+    private final Map<Method, String> queryTypes = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(Supplier<MeterRegistry> registry, RepositoryInformation repositoryInformation) {
+        this.registry = registry;
+        this.repositoryInformation = repositoryInformation;
+        this.repositoryName = repositoryInformation.getRepositoryInterface().getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meterRegistry = registry.get();
+        if (meterRegistry == null) {
+            return invocation.proceed();
+        }
+
+        Method method = invocation.getMethod();
+        String type = queryTypes.computeIfAbsent(method, this::queryType);
+        String outcome = "success";
+        long startedAt = System.nanoTime();
+        try (QueryCountScope scope = QueryCounter.start()) {
+            Object result = invocation.proceed();
+            DistributionSummary rows = summary(meterRegistry, "repository.method.rows", method, type);
+            if (result instanceof Stream) {
+                result = countOnClose((Stream<?>) result, rows);
+            } else {
+                rows.record(rowCount(result));
+            }
+            summary(meterRegistry, "repository.method.statements", method, type).record(scope.getStatementCount());
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("repository.method.latency")
+                    .tags("repository", repositoryName, "method", method.getName(), "type", type, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private DistributionSummary summary(MeterRegistry meterRegistry, String name, Method method, String type) {
+        return DistributionSummary.builder(name)
+                .tags("repository", repositoryName, "method", method.getName(), "type", type)
+                .register(meterRegistry);
+    }
+
+    private String queryType(Method method) {
+        if (repositoryInformation.isCustomMethod(method)) {
+            return "custom";
+        }
+        if (repositoryInformation.isBaseClassMethod(method)) {
+            return Arrays.stream(method.getParameterTypes()).anyMatch(Specification.class::isAssignableFrom)
+                    ? "specification" : "crud";
+        }
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null) {
+            return query.nativeQuery() ? "native" : "query";
+        }
+        return "derived";
+    }
+
+    /**
+     * Stream은 돌려주는 시점에 아직 소비 전이므로, 읽은 행을 세어 두었다가 close 할 때 기록한다.
+     * 닫지 않은 Stream은 기록되지 않는다(커넥션도 잡고 있으므로 어차피 닫아야 한다).
+     */
+    private static Stream<?> countOnClose(Stream<?> stream, DistributionSummary rows) {
+        LongAdder count = new LongAdder();
+        return stream.peek(row -> count.increment()).onClose(() -> rows.record(count.sum()));
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Window) {
+            return ((Window<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number) { // @Modifying 쿼리는 변경된 행 수를 돌려준다
+            return ((Number) result).longValue();
+        }
+        return 1; // 단건 조회
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.monitor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class SlowQuery {
+
+    private final LocalDateTime executedAt;
+    private final long elapsedMillis;
+    private final String repositoryMethod;
+    private final String sql;
+    private final List<List<Object>> parameters;
+    private volatile String plan; // EXPLAIN은 백그라운드에서 채워진다
+
+    public SlowQuery(LocalDateTime executedAt, long elapsedMillis, String repositoryMethod, String sql,
+            List<List<Object>> parameters) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.repositoryMethod = repositoryMethod;
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
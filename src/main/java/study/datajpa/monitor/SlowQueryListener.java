@@ -0,0 +1,136 @@
+package study.datajpa.monitor;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * threshold 이상 걸린 SQL만 바인딩 파라미터, 호출한 리포지토리 메서드와 함께 {@link SlowQueryLog}에 남긴다.
+ * SELECT는 같은 파라미터로 EXPLAIN을 돌려 실행 계획도 붙인다. EXPLAIN은 원래 요청을 붙잡지 않도록
+ * 프록시를 거치지 않은 DataSource로 백그라운드에서 실행하고, 밀려 있으면 건너뛴다.
+ * EXPLAIN은 진단 대상과 같은 풀에서 커넥션을 빌리므로 한 번에 하나만 빌리고, 풀에 쉬는 커넥션이 없으면 건너뛴다.
+ * 컨텍스트가 닫힐 때 {@link #destroy()}로 EXPLAIN 스레드를 멈춘다.
+ */
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener, DisposableBean {
+
+    private static final int MAX_PARAMETER_SETS = 10;
+
+    private final long thresholdMillis;
+    private final SlowQueryLog slowQueryLog;
+    private final DataSource explainDataSource;
+    private final ExecutorService explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(100), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryListener(Duration threshold, SlowQueryLog slowQueryLog, DataSource explainDataSource) {
+        this.thresholdMillis = threshold.toMillis();
+        this.slowQueryLog = slowQueryLog;
+        this.explainDataSource = explainDataSource;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        String method = RepositoryMethodContext.current();
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parameterSets = queryInfo.getParametersList();
+            SlowQuery slowQuery = new SlowQuery(LocalDateTime.now(), execInfo.getElapsedTime(), method,
+                    queryInfo.getQuery(), parameterValues(parameterSets));
+            slowQueryLog.add(slowQuery);
+            log.warn("slow query {}ms [{}] {} {}", slowQuery.getElapsedMillis(), method, slowQuery.getSql(),
+                    slowQuery.getParameters());
+
+            if (queryInfo.getQuery().stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                List<ParameterSetOperation> firstSet = parameterSets.isEmpty() ? List.of() : parameterSets.get(0);
+                explainExecutor.execute(() -> slowQuery.setPlan(explain(slowQuery.getSql(), firstSet)));
+            }
+        }
+    }
+
+    private static List<List<Object>> parameterValues(List<List<ParameterSetOperation>> parameterSets) {
+        return parameterSets.stream()
+                .limit(MAX_PARAMETER_SETS)
+                .map(operations -> operations.stream()
+                        .sorted(Comparator.comparingInt(SlowQueryListener::parameterIndex))
+                        .map(op -> op.getArgs().length > 1 ? op.getArgs()[1] : null)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        Object index = operation.getArgs()[0];
+        return index instanceof Integer ? (Integer) index : 0;
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * 느린 쿼리는 대개 풀이 바쁠 때 생긴다. 쉬는 커넥션이 없을 때 EXPLAIN이 커넥션을 기다리면
+     * 요청 스레드 몫을 하나 더 뺏게 되므로 그때는 실행 계획을 포기한다. 히카리가 아니면 확인할 수 없어서 그냥 실행한다.
+     */
+    private boolean poolHasIdleConnection() {
+        try {
+            if (explainDataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariPoolMXBean pool = explainDataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                return pool == null || pool.getIdleConnections() > 0;
+            }
+        } catch (SQLException e) {
+            log.debug("cannot inspect pool for EXPLAIN", e);
+        }
+        return true;
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> parameters) {
+        if (!poolHasIdleConnection()) {
+            return "EXPLAIN skipped: no idle connection";
+        }
+        try (Connection connection = explainDataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation operation : parameters) {
+                operation.getMethod().invoke(ps, operation.getArgs()); // 원래 setXxx 호출을 그대로 재현한다
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (Exception e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.monitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 최근 느린 쿼리를 capacity 건까지만 들고 있는 링 버퍼.
+ */
+@Component
+public class SlowQueryLog {
+
+    private final int capacity;
+    private final Deque<SlowQuery> queries;
+
+    public SlowQueryLog(@Value("${datajpa.slow-query.capacity:200}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slow query capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.queries = new ArrayDeque<>(capacity);
+    }
+
+    public synchronized void add(SlowQuery query) {
+        if (queries.size() == capacity) {
+            queries.removeFirst();
+        }
+        queries.addLast(query);
+    }
+
+    /**
+     * @return 최신순
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(queries);
+        Collections.reverse(result);
+        return result;
+    }
+
+    public synchronized void clear() {
+        queries.clear();
+    }
+}
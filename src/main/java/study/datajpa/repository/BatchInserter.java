@@ -0,0 +1,48 @@
+package study.datajpa.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 순수 JPA 리포지토리들이 같이 쓰는 대량 저장.
+ * batch_size 만큼 persist 할 때마다 flush(JDBC 배치 한 번)하고, 방금 저장한 엔티티만 detach 해서 영속성 컨텍스트가 커지지 않게 한다.
+ * clear와 달리 호출한 쪽이 이미 들고 있던 엔티티는 영속 상태 그대로 둔다.
+ */
+@Component
+class BatchInserter {
+
+    private final EntityManager em;
+    private final int batchSize;
+
+    BatchInserter(EntityManager em, @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 트랜잭션 안에서 호출해야 한다. 저장이 끝난 엔티티는 준영속 상태가 된다.
+     */
+    <T> int persistAll(Iterable<T> entities) {
+        List<T> batch = new ArrayList<>(batchSize);
+        int count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            batch.add(entity);
+            count++;
+            if (batch.size() == batchSize) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        return count;
+    }
+
+    private void flushAndDetach(List<?> batch) {
+        em.flush();
+        batch.forEach(em::detach);
+        batch.clear();
+    }
+}
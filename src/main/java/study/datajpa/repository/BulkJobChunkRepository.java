@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import java.util.Set;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.datajpa.entity.BulkJobChunk;
+
+public interface BulkJobChunkRepository extends JpaRepository<BulkJobChunk, Long> {
+
+    @Query("select c.chunkIndex from BulkJobChunk c where c.job.id = :jobId")
+    Set<Integer> findCompletedChunkIndexes(@Param("jobId") Long jobId);
+
+}
@@ -0,0 +1,20 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class BulkUpdateResult {
+
+    private final List<Long> updatedIds;
+    private final int chunkCount;
+
+    public BulkUpdateResult(List<Long> updatedIds, int chunkCount) {
+        this.updatedIds = updatedIds;
+        this.chunkCount = chunkCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedIds.size();
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.repository;
+
+/**
+ * 작업 대상 행을 잠글 때 다른 트랜잭션이 이미 잠근 행을 만나면 어떻게 할지.
+ */
+public enum ClaimMode {
+
+    /** 잠금이 풀릴 때까지 기다린다. 최대 대기 시간은 DB의 lock timeout 설정을 따른다. */
+    WAIT("for update"),
+
+    /** 기다리지 않고 바로 실패한다(PessimisticLockingFailureException). */
+    NOWAIT("for update nowait"),
+
+    /** 잠긴 행은 건너뛰고 나머지에서 가져온다. 여러 워커가 겹치지 않는 묶음을 동시에 가져갈 수 있다. */
+    SKIP_LOCKED("for update skip locked");
+
+    private final String lockClause;
+
+    ClaimMode(String lockClause) {
+        this.lockClause = lockClause;
+    }
+
+    String lockClause() {
+        return lockClause;
+    }
+}
@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+/**
+ * 페이지 조회 시 전체 개수(totalCount)를 어떻게 구할지.
+ * 어느 쪽이든 첫 페이지가 pageSize보다 작으면 count 쿼리 자체를 생략한다.
+ */
+public enum CountMode {
+
+    /** 항상 count 쿼리를 실행하고, 결과로 캐시를 갱신한다. */
+    EXACT,
+
+    /** TTL 안에 캐시된 값이 있으면 count 쿼리 없이 그대로 쓴다. */
+    CACHED
+}
@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import study.datajpa.config.BoundedRepositoryExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+/**
+ * MemberRepository를 repositoryExecutor 위에서 호출하는 비동기 버전.
+ * 메서드마다 별도 스레드의 별도 트랜잭션으로 실행되므로, 돌려받은 엔티티는 준영속 상태다(지연 로딩 불가).
+ * 연관 엔티티가 필요하면 DTO를 돌려주는 메서드를 쓴다.
+ */
+@Repository
+public class MemberAsyncRepository {
+
+    private final MemberRepository memberRepository;
+    private final BoundedRepositoryExecutor executor;
+
+    public MemberAsyncRepository(MemberRepository memberRepository, BoundedRepositoryExecutor executor) {
+        this.memberRepository = memberRepository;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Optional<Member>> findById(Long id) {
+        return executor.submit(() -> memberRepository.findById(id));
+    }
+
+    public CompletableFuture<Member> findByUsername(String username) {
+        return executor.submit(() -> memberRepository.findByUsername(username));
+    }
+
+    public CompletableFuture<Page<MemberDto>> findDtoPage(Pageable pageable, CountMode countMode) {
+        return executor.submit(() -> memberRepository.findDtoPage(pageable, countMode));
+    }
+
+    public CompletableFuture<Window<MemberDto>> findDtoWindow(String cursor, int size) {
+        return executor.submit(() -> memberRepository.findDtoWindow(cursor, size));
+    }
+
+    public CompletableFuture<Member> save(Member member) {
+        return executor.submit(() -> memberRepository.save(member));
+    }
+
+    public CompletableFuture<List<Member>> saveAll(List<Member> members) {
+        return executor.submit(() -> memberRepository.saveAll(members));
+    }
+}
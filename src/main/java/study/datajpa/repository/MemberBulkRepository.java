@@ -0,0 +1,25 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface MemberBulkRepository {
+
+    /**
+     * bulkAgePlus와 같은 변경을 chunkSize 건씩 나눠서 실행한다.
+     * 영속성 컨텍스트를 clear 하는 대신, 변경된 회원 중 이미 영속 상태인 것만 refresh 하고
+     * 2차 캐시에서도 변경된 회원만 지운다.
+     * 청크마다 대상 행을 select ... for update 로 잠근 뒤 그 id만 갱신하므로, 돌려주는 id는 실제로 갱신된 행이다.
+     * 호출한 쪽에 트랜잭션이 없으면 청크마다 따로 커밋해서 행 잠금을 오래 잡지 않는다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS) // 리포지토리 기본값인 읽기 전용 트랜잭션으로 감싸지 않는다
+    BulkUpdateResult bulkAgePlus(int age, int chunkSize);
+
+    /**
+     * id가 startId ~ endId 인 회원 중 age 이상인 회원의 나이를 1 올린다(MemberBulkJobService의 청크 하나).
+     * 대상 행을 잠가서 고른 뒤 그 id만 갱신하고, 트랜잭션이 끝난 뒤 2차 캐시에서도 실제로 바뀐 id만 지운다.
+     */
+    @Transactional
+    int bulkAgePlusInRange(int age, long startId, long endId);
+
+}
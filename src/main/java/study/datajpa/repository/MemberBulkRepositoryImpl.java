@@ -0,0 +1,118 @@
+package study.datajpa.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+public class MemberBulkRepositoryImpl implements MemberBulkRepository {
+
+    private static final String[] MEMBER_QUERY_SPACES = {"member"};
+
+    private final EntityManager em;
+    private final TransactionTemplate chunkTransaction;
+
+    public MemberBulkRepositoryImpl(EntityManager em, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BulkUpdateResult bulkAgePlus(int age, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        List<Long> updatedIds = new ArrayList<>();
+        int chunkCount = 0;
+        Long lastId = 0L;
+
+        while (true) {
+            Long from = lastId;
+            List<Long> chunk = chunkTransaction.execute(status -> updateChunk(age, from, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            updatedIds.addAll(chunk);
+            chunkCount++;
+            lastId = chunk.get(chunk.size() - 1);
+        }
+        return new BulkUpdateResult(updatedIds, chunkCount);
+    }
+
+    private List<Long> updateChunk(int age, Long lastId, int chunkSize) {
+        return lockAndUpdate("select member_id from member "
+                + "where age >= ? and member_id > ? order by member_id fetch first ? rows only for update",
+                age, lastId, chunkSize);
+    }
+
+    @Override
+    public int bulkAgePlusInRange(int age, long startId, long endId) {
+        return lockAndUpdate("select member_id from member "
+                + "where member_id between ? and ? and age >= ? order by member_id for update",
+                startId, endId, age).size();
+    }
+
+    /**
+     * selectForUpdate로 고른 회원의 나이를 1 올리고, 실제로 바뀐 id만 돌려준다.
+     * 고른 행을 커밋까지 잠가서 돌려주는 id가 실제로 갱신한 행과 같게 하고, 2차 캐시도 그 id만 지운다.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> lockAndUpdate(String selectForUpdate, Object... parameters) {
+        em.flush(); // 아래 native 쿼리는 member 테이블로 동기화되지 않으므로 직접 flush 한다
+
+        Query select = em.createNativeQuery(selectForUpdate);
+        for (int i = 0; i < parameters.length; i++) {
+            select.setParameter(i + 1, parameters[i]);
+        }
+        List<Long> ids = ((List<Number>) select.unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("member_bulk")
+                .getResultList())
+                .stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        // JPQL 벌크 연산은 Member 2차 캐시 리전을 통째로 비운다.
+        // 가짜 쿼리 스페이스로 동기화해서 그걸 막고, 대신 바뀐 id만 직접 지운다.
+        em.createNativeQuery("update member set age = age + 1, version = version + 1 where member_id in (:ids)")
+                .setParameter("ids", ids)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("member_bulk")
+                .executeUpdate();
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        invalidateAfterCompletion(session, ids);
+        for (Long id : ids) {
+            em.getEntityManagerFactory().getCache().evict(Member.class, id);
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                em.refresh(managed);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 쿼리 캐시는 member 기준으로 무효화한다. 커밋 전에는 pre-invalidate만 해서 그 사이 결과가 캐시되지 않게 하고,
+     * 다른 트랜잭션이 옛 값을 다시 캐시했을 수 있으므로 트랜잭션이 끝난 뒤에 한 번 더 지운다(하이버네이트 벌크 연산과 같은 순서).
+     */
+    private static void invalidateAfterCompletion(SessionImplementor session, List<Long> ids) {
+        TimestampsCache timestampsCache = session.getFactory().getCache().getTimestampsCache();
+        timestampsCache.preInvalidate(MEMBER_QUERY_SPACES, session);
+        session.getActionQueue().registerProcess((success, completed) -> {
+            timestampsCache.invalidate(MEMBER_QUERY_SPACES, completed);
+            ids.forEach(id -> completed.getFactory().getCache().evictEntityData(Member.class, id));
+        });
+    }
+}
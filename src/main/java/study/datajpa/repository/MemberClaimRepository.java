@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+public interface MemberClaimRepository {
+
+    /**
+     * 나이가 age인 회원을 id 순으로 최대 limit 명 잠가서 가져온다. 잠금은 호출한 트랜잭션이 끝날 때 풀린다.
+     * 잠금 없이 호출하면 의미가 없으므로 트랜잭션 안에서만 호출할 수 있다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    List<Member> claimByAge(int age, int limit, ClaimMode mode);
+
+}
@@ -0,0 +1,29 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import study.datajpa.entity.Member;
+
+public class MemberClaimRepositoryImpl implements MemberClaimRepository {
+
+    private final EntityManager em;
+
+    public MemberClaimRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    // Hibernate 5.6의 H2Dialect는 NOWAIT/SKIP LOCKED를 그리지 않고 그냥 for update로 바꾼다.
+    // 그래서 @Lock + 힌트 대신 잠금 구문을 직접 쓴다. (H2 2.x, PostgreSQL, MySQL 8, Oracle 모두 지원)
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Member> claimByAge(int age, int limit, ClaimMode mode) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        return em.createNativeQuery("select * from member where age = ? order by member_id "
+                        + "fetch first ? rows only " + mode.lockClause(), Member.class)
+                .setParameter(1, age)
+                .setParameter(2, limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.repository;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 페이지 조회용 totalCount 캐시.
+ * member 테이블에 insert/update/delete가 나가면 {@link #invalidate()}로 통째로 비운다.
+ * count 쿼리가 도는 중에 비워졌다면 그 결과는 이미 낡았을 수 있으므로 캐시하지 않는다.
+ */
+@Component
+public class MemberCountCache {
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberCountCache(@Value("${datajpa.count-cache.ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long count(String key, CountMode countMode, LongSupplier counter) {
+        long now = System.nanoTime();
+        if (countMode == CountMode.CACHED) {
+            CachedCount cached = counts.get(key);
+            if (cached != null && now - cached.cachedAt < ttlNanos) {
+                return cached.value;
+            }
+        }
+        long startedGeneration = generation.get();
+        long value = counter.getAsLong();
+        if (generation.get() == startedGeneration) {
+            counts.put(key, new CachedCount(value, now));
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    private static class CachedCount {
+
+        private final long value;
+        private final long cachedAt;
+
+        private CachedCount(long value, long cachedAt) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+public interface MemberCountingRepository {
+
+    Page<Member> findPage(Pageable pageable, CountMode countMode);
+
+    Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode);
+
+    /**
+     * 엔티티를 영속성 컨텍스트에 올리지 않고 DTO로 바로 조회한다. 팀이 없는 회원도 포함된다.
+     */
+    Page<MemberDto> findDtoPage(Pageable pageable, CountMode countMode);
+
+}
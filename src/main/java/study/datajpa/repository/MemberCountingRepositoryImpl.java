@@ -0,0 +1,71 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+public class MemberCountingRepositoryImpl implements MemberCountingRepository {
+
+    private final EntityManager em;
+    private final MemberCountCache countCache;
+
+    public MemberCountingRepositoryImpl(EntityManager em, MemberCountCache countCache) {
+        this.em = em;
+        this.countCache = countCache;
+    }
+
+    @Override
+    public Page<Member> findPage(Pageable pageable, CountMode countMode) {
+        TypedQuery<Member> query = em.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class);
+        List<Member> content = page(query, pageable).getResultList();
+
+        // 첫 페이지가 덜 찼거나 마지막 페이지면 PageableExecutionUtils가 count 쿼리를 생략한다.
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.count("all", countMode,
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Page<MemberDto> findDtoPage(Pageable pageable, CountMode countMode) {
+        TypedQuery<MemberDto> query = em.createQuery(QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) "
+                        + "from Member m left join m.team t", pageable.getSort(), "m"), MemberDto.class);
+        List<MemberDto> content = page(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.count("all", countMode,
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode) {
+        TypedQuery<Member> query = em.createQuery(
+                        QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"),
+                        Member.class)
+                .setParameter("age", age);
+        List<Member> content = page(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.count("age:" + age, countMode,
+                        () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    private static <T> TypedQuery<T> page(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+}
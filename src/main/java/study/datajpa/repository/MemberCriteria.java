@@ -0,0 +1,104 @@
+package study.datajpa.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.BaseEntity_;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Member_;
+import study.datajpa.entity.Team_;
+
+/**
+ * 회원 검색 조건을 체이닝으로 모은다. 값이 없는 조건은 빠진다.
+ * 경로는 정적 메타모델(Member_, Team_)로 잡으므로 필드 이름이 바뀌면 컴파일 단계에서 깨지고,
+ * 문자열로 속성을 찾는 과정도 없다. 조건마다 Specification을 만들어 and로 잇지 않고 한 번에 predicate 배열로 만든다.
+ *
+ * <pre>
+ * memberRepository.findSlice(MemberCriteria.create().teamName("teamA").ageBetween(10, 20), PageRequest.of(0, 20));
+ * </pre>
+ */
+public class MemberCriteria implements Specification<Member> {
+
+    private static final int MAX_PREDICATES = 7;
+
+    private String username;
+    private Integer minAge;
+    private Integer maxAge;
+    private String teamName;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime modifiedFrom;
+
+    public static MemberCriteria create() {
+        return new MemberCriteria();
+    }
+
+    public MemberCriteria username(String username) {
+        this.username = StringUtils.hasText(username) ? username : null;
+        return this;
+    }
+
+    /**
+     * 양 끝을 포함한다. 한쪽이 null이면 그쪽은 열린 구간이다.
+     */
+    public MemberCriteria ageBetween(Integer min, Integer max) {
+        this.minAge = min;
+        this.maxAge = max;
+        return this;
+    }
+
+    public MemberCriteria teamName(String teamName) {
+        this.teamName = StringUtils.hasText(teamName) ? teamName : null;
+        return this;
+    }
+
+    /**
+     * from 이상, to 미만. 한쪽이 null이면 그쪽은 열린 구간이다.
+     */
+    public MemberCriteria createdBetween(LocalDateTime from, LocalDateTime to) {
+        this.createdFrom = from;
+        this.createdTo = to;
+        return this;
+    }
+
+    public MemberCriteria modifiedSince(LocalDateTime from) {
+        this.modifiedFrom = from;
+        return this;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<Member> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate[] predicates = new Predicate[MAX_PREDICATES];
+        int count = 0;
+        if (username != null) {
+            predicates[count++] = cb.equal(root.get(Member_.username), username);
+        }
+        if (minAge != null) {
+            predicates[count++] = cb.greaterThanOrEqualTo(root.get(Member_.age), minAge);
+        }
+        if (maxAge != null) {
+            predicates[count++] = cb.lessThanOrEqualTo(root.get(Member_.age), maxAge);
+        }
+        if (teamName != null) {
+            predicates[count++] = cb.equal(root.join(Member_.team).get(Team_.name), teamName);
+        }
+        if (createdFrom != null) {
+            predicates[count++] = cb.greaterThanOrEqualTo(root.get(BaseEntity_.createdDate), createdFrom);
+        }
+        if (createdTo != null) {
+            predicates[count++] = cb.lessThan(root.get(BaseEntity_.createdDate), createdTo);
+        }
+        if (modifiedFrom != null) {
+            predicates[count++] = cb.greaterThanOrEqualTo(root.get(BaseEntity_.lastModifiedDate), modifiedFrom);
+        }
+        if (count == 0) {
+            return null;
+        }
+        return count == 1 ? predicates[0] : cb.and(Arrays.copyOf(predicates, count));
+    }
+}
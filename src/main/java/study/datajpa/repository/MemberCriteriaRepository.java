@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.entity.Member;
+
+public interface MemberCriteriaRepository {
+
+    /**
+     * count 쿼리 없이 pageSize + 1 건을 읽어서 다음 페이지가 있는지만 판단한다.
+     */
+    Slice<Member> findSlice(MemberCriteria criteria, Pageable pageable);
+
+}
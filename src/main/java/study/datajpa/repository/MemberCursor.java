@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.util.StringUtils;
+
+/**
+ * member_id 기반 키셋 커서의 인코딩/디코딩.
+ * 클라이언트는 값을 해석하지 않고 그대로 돌려주기만 하면 된다.
+ */
+public class MemberCursor {
+
+    private static final String PREFIX = "m:";
+
+    private MemberCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 커서가 비어 있으면 null(첫 페이지)
+     */
+    public static Long decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid member cursor: " + cursor);
+            }
+            return Long.valueOf(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new IllegalArgumentException("Invalid member cursor: " + cursor, e);
+        }
+    }
+}
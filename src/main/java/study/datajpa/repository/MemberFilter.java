@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+/**
+ * MemberSpec 조건 조합. 비어 있는 조건은 빠진다.
+ * 어떤 조건이 들어 있는지(shape)만 보면 JPQL이 정해지므로, 같은 모양이면 한 번 만든 쿼리를 다시 쓸 수 있다.
+ */
+@Getter
+public final class MemberFilter {
+
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+
+    private final String username;
+    private final String teamName;
+
+    private MemberFilter(String username, String teamName) {
+        this.username = StringUtils.hasText(username) ? username : null;
+        this.teamName = StringUtils.hasText(teamName) ? teamName : null;
+    }
+
+    public static MemberFilter of(String username, String teamName) {
+        return new MemberFilter(username, teamName);
+    }
+
+    /**
+     * 같은 조건의 Specification. 페이징처럼 JpaSpecificationExecutor가 필요한 곳에 쓴다.
+     */
+    public Specification<Member> toSpecification() {
+        return Specification.where(username != null ? MemberSpec.username(username) : null)
+                .and(teamName != null ? MemberSpec.teamName(teamName) : null);
+    }
+
+    int shape() {
+        return (username != null ? USERNAME : 0) | (teamName != null ? TEAM_NAME : 0);
+    }
+}
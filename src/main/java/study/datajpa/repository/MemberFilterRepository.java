@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import study.datajpa.entity.Member;
+
+public interface MemberFilterRepository {
+
+    /**
+     * findAll(filter.toSpecification())과 결과는 같다. Criteria 트리를 매번 만들지 않고,
+     * 조건 모양별로 한 번 만든 JPQL에 파라미터만 다시 바인딩하므로 Hibernate 쿼리 플랜도 재사용된다.
+     */
+    List<Member> search(MemberFilter filter);
+
+}
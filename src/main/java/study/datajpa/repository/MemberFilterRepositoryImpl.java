@@ -0,0 +1,50 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import study.datajpa.entity.Member;
+
+public class MemberFilterRepositoryImpl implements MemberFilterRepository {
+
+    // 조건이 두 개라 모양은 최대 4개다
+    private final Map<Integer, String> compiled = new ConcurrentHashMap<>();
+
+    private final EntityManager em;
+
+    public MemberFilterRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<Member> search(MemberFilter filter) {
+        int shape = filter.shape();
+        TypedQuery<Member> query = em.createQuery(compiled.computeIfAbsent(shape, this::compile), Member.class);
+        if ((shape & MemberFilter.USERNAME) != 0) {
+            query.setParameter("username", filter.getUsername());
+        }
+        if ((shape & MemberFilter.TEAM_NAME) != 0) {
+            query.setParameter("teamName", filter.getTeamName());
+        }
+        return query.getResultList();
+    }
+
+    // MemberSpec과 같은 조건을 쓴다. 팀 이름 조건이 있을 때만 팀과 inner join 한다.
+    private String compile(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if ((shape & MemberFilter.TEAM_NAME) != 0) {
+            jpql.append(" join m.team t");
+        }
+        String separator = " where ";
+        if ((shape & MemberFilter.USERNAME) != 0) {
+            jpql.append(separator).append("m.username = :username");
+            separator = " and ";
+        }
+        if ((shape & MemberFilter.TEAM_NAME) != 0) {
+            jpql.append(separator).append("t.name = :teamName");
+        }
+        return jpql.toString();
+    }
+}
@@ -1,18 +1,23 @@
 package study.datajpa.repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 
 @Repository
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final BatchInserter batchInserter;
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, BatchInserter batchInserter) {
         this.em = em;
+        this.batchInserter = batchInserter;
     }
 
     public Member save(Member member) {
@@ -20,6 +25,14 @@ public class MemberJpaRepository {
         return member;
     }
 
+    /**
+     * 대량 저장. batch_size 건씩 JDBC 배치로 insert 하고, 저장이 끝난 회원은 준영속 상태가 된다({@link BatchInserter}).
+     */
+    @Transactional
+    public int saveAllInBatch(Iterable<Member> members) {
+        return batchInserter.persistAll(members);
+    }
+
     public long count() {
         return em.createQuery("select count(m) from Member m ", Long.class)
                 .getSingleResult();
@@ -38,6 +51,31 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * findAll의 스트림 버전. fetchSize 건을 읽을 때마다 앞서 읽은 회원을 detach 해서 영속성 컨텍스트가 커지지 않게 한다.
+     * 순서대로 한 건씩 소비하는 것을 전제로 하므로, 이미 지나간 회원은 준영속 상태라 지연 로딩할 수 없다.
+     * clear와 달리 호출한 쪽이 따로 들고 있던 엔티티는 건드리지 않는다. 트랜잭션 안에서 소비하고 반드시 close 해야 한다.
+     */
+    public Stream<Member> streamAll(int fetchSize) {
+        List<Member> batch = new ArrayList<>(fetchSize);
+        return em.createQuery("select m from Member m order by m.id", Member.class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(member -> {
+                    if (batch.size() == fetchSize) { // 다음 회원이 나올 때는 앞의 fetchSize 건 처리가 끝났다
+                        detachAll(batch);
+                    }
+                    batch.add(member);
+                })
+                .onClose(() -> detachAll(batch));
+    }
+
+    private void detachAll(List<Member> members) {
+        members.forEach(em::detach);
+        members.clear();
+    }
+
     public void delete(Member member) {
         em.remove(member);
     }
@@ -57,6 +95,20 @@ public class MemberJpaRepository {
                 .setMaxResults(limit)
                 .getResultList();
     }
+
+    /**
+     * findByPage의 키셋 버전. offset을 건너뛰는 대신 직전 페이지의 마지막 id 다음부터 읽는다.
+     * 첫 페이지는 lastId에 null을 넘긴다.
+     */
+    public List<Member> findByKeyset(int age, Long lastId, int limit) {
+        return em.createQuery("select m from Member m where m.age = :age and m.id > :lastId order by m.id asc",
+                        Member.class)
+                .setParameter("age", age)
+                .setParameter("lastId", lastId == null ? 0L : lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
@@ -64,7 +116,7 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age+1 where m.age >= :age")
+        return em.createQuery("update Member m set m.age = m.age+1, m.version = m.version+1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
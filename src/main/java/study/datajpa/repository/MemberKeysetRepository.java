@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+public interface MemberKeysetRepository {
+
+    Window<Member> findWindow(String cursor, int size);
+
+    Window<Member> findWindowByAge(int age, String cursor, int size);
+
+    /**
+     * 엔티티를 영속성 컨텍스트에 올리지 않고 DTO로 바로 조회한다.
+     */
+    Window<MemberDto> findDtoWindow(String cursor, int size);
+
+}
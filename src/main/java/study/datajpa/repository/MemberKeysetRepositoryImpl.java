@@ -0,0 +1,69 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+public class MemberKeysetRepositoryImpl implements MemberKeysetRepository {
+
+    private static final String MEMBER_SELECT = "select m from Member m";
+    private static final String DTO_SELECT =
+            "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t";
+
+    private final EntityManager em;
+
+    public MemberKeysetRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public Window<Member> findWindow(String cursor, int size) {
+        return findWindow(MEMBER_SELECT, Member.class, Member::getId, null, cursor, size);
+    }
+
+    @Override
+    public Window<Member> findWindowByAge(int age, String cursor, int size) {
+        return findWindow(MEMBER_SELECT, Member.class, Member::getId, age, cursor, size);
+    }
+
+    @Override
+    public Window<MemberDto> findDtoWindow(String cursor, int size) {
+        return findWindow(DTO_SELECT, MemberDto.class, MemberDto::getId, null, cursor, size);
+    }
+
+    private <T> Window<T> findWindow(String select, Class<T> type, Function<T, Long> idExtractor,
+            Integer age, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        Long lastId = MemberCursor.decode(cursor);
+
+        // offset 없이 PK 인덱스를 타고 lastId 다음부터 읽는다. 다음 페이지 유무는 한 건 더 읽어서 판단한다.
+        StringBuilder jpql = new StringBuilder(select).append(" where 1 = 1");
+        if (age != null) {
+            jpql.append(" and m.age = :age");
+        }
+        if (lastId != null) {
+            jpql.append(" and m.id > :lastId");
+        }
+        jpql.append(" order by m.id asc");
+
+        TypedQuery<T> query = em.createQuery(jpql.toString(), type);
+        if (age != null) {
+            query.setParameter("age", age);
+        }
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+        }
+        List<T> result = query.setMaxResults(size + 1).getResultList();
+
+        if (result.size() <= size) {
+            return new Window<>(result, null);
+        }
+        List<T> content = result.subList(0, size);
+        return new Window<>(content, MemberCursor.encode(idExtractor.apply(content.get(size - 1))));
+    }
+}
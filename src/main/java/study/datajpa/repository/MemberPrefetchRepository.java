@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+import java.util.Collection;
+import study.datajpa.entity.Member;
+
+public interface MemberPrefetchRepository {
+
+    /**
+     * 회원들의 팀을 IN 쿼리 한 번으로 미리 읽어 둔다. 이후 member.getTeam()을 초기화해도 쿼리가 나가지 않는다.
+     */
+    void prefetchTeams(Collection<Member> members);
+
+}
@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import org.hibernate.Hibernate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+public class MemberPrefetchRepositoryImpl implements MemberPrefetchRepository {
+
+    private final EntityManager em;
+
+    public MemberPrefetchRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public void prefetchTeams(Collection<Member> members) {
+        // getIdentifier는 프록시를 초기화하지 않고 id만 꺼낸다
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        Set<Object> teamIds = members.stream()
+                .map(Member::getTeam)
+                .filter(Objects::nonNull)
+                .filter(team -> !Hibernate.isInitialized(team))
+                .map(util::getIdentifier)
+                .collect(Collectors.toSet());
+        if (teamIds.isEmpty()) {
+            return;
+        }
+
+        // 읽어온 팀은 영속성 컨텍스트에 올라가므로, 기존 프록시는 초기화할 때 DB 대신 여기서 찾는다
+        em.createQuery("select t from Team t where t.id in :ids", Team.class)
+                .setParameter("ids", teamIds)
+                .getResultList();
+    }
+}
@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
@@ -15,11 +16,19 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
+/**
+ * 메서드는 기본적으로 읽기 전용 트랜잭션(FlushMode.MANUAL, 스냅샷 없는 읽기 전용 세션)으로 실행된다.
+ * 변경하는 메서드만 @Transactional로 다시 선언한다. save/delete 등은 SimpleJpaRepository 쪽 설정을 따른다.
+ */
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository,
-        JpaSpecificationExecutor {
+        MemberKeysetRepository, MemberCountingRepository, MemberPrefetchRepository,
+        MemberBulkRepository, MemberClaimRepository, MemberFilterRepository,
+        MemberCriteriaRepository, JpaSpecificationExecutor {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -43,21 +52,52 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     Page<Member> findByAge(int age, Pageable pageable);
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    @Transactional
     @Modifying // executeQuery() 수행
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true")) // 바깥 트랜잭션이 있어도 스냅샷을 만들지 않는다
     @Query("select m from Member m join fetch m.team ")
     List<Member> findMemberFetch();
 
     @Override
     @EntityGraph(attributePaths = {"team"})
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
     List<Member> findAll();
 
+    /**
+     * 전체 목록을 List로 올리지 않고 fetchSize 단위로 끊어 읽는다. 트랜잭션 안에서 소비하고 반드시 close 해야 한다.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
+
+    /**
+     * 엔티티 스트림. 읽은 엔티티가 영속성 컨텍스트에 계속 쌓이므로 소비하는 쪽에서 주기적으로 clear 해야 한다.
+     * 읽으면서 알아서 detach 하는 버전은 MemberJpaRepository.streamAll 이다.
+     */
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select m from Member m left join fetch m.team order by m.id")
+    Stream<Member> streamMemberFetch();
+
     @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value= "true"))
     Member findReadonlyByUsername(String username);
 
+    /**
+     * 다른 트랜잭션이 잡고 있으면 최대 3초 기다린다. 타임아웃을 지원하지 않는 방언에서는 DB 설정값을 따른다.
+     * 여러 워커가 회원을 나눠 가져가야 한다면 claimByAge(..., SKIP_LOCKED)를 쓴다.
+     */
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
     List<Member> findLockByUsername(String username);
 
 //    List<UserNameOnly> findProjectionsByUsername(String username);
@@ -69,7 +109,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
 
     @Query(value = "select m.member_id as id, m.username, t.name as teamName "
             + "from member m join team t on m.team_id = t.team_id ",
-            countQuery = "select count(member.id) from member ",
+            countQuery = "select count(*) from member m join team t on m.team_id = t.team_id ",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 
@@ -5,6 +5,9 @@ import javax.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Member_;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.Team_;
 
 public class MemberSpec {
 
@@ -14,13 +17,13 @@ public class MemberSpec {
                 return null;
             }
 
-            Join<Object, Object> t = root.join("team", JoinType.INNER);// 회원과 조인
-            return criteriaBuilder.equal(t.get("name"), teamName);
+            Join<Member, Team> t = root.join(Member_.team, JoinType.INNER);// 회원과 조인
+            return criteriaBuilder.equal(t.get(Team_.name), teamName);
         };
     }
 
     public static Specification<Member> username(final String username) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("username"), username);
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(Member_.username), username);
     }
 
 }
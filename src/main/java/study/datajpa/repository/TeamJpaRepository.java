@@ -5,6 +5,7 @@ import java.util.Optional;
 import javax.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
 @Repository
@@ -13,17 +14,30 @@ public class TeamJpaRepository {
     @Autowired
     EntityManager em;
 
+    @Autowired
+    BatchInserter batchInserter;
+
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    /**
+     * MemberJpaRepository.saveAllInBatch와 같은 방식의 팀 대량 저장.
+     */
+    @Transactional
+    public int saveAllInBatch(Iterable<Team> teams) {
+        return batchInserter.persistAll(teams);
+    }
+
     public void delete(Team team) {
         em.remove(team);
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t ", Team.class).getResultList();
+        return em.createQuery("select t from Team t ", Team.class)
+                .setHint("org.hibernate.cacheable", true) // 쿼리 캐시
+                .getResultList();
     }
 
     public Optional<Team> findById(Long id) {
@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+import java.util.Collection;
+import study.datajpa.entity.Team;
+
+public interface TeamPrefetchRepository {
+
+    /**
+     * 팀들의 members 컬렉션을 페치 조인 한 번으로 초기화한다.
+     */
+    void prefetchMembers(Collection<Team> teams);
+
+}
@@ -0,0 +1,32 @@
+package study.datajpa.repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import study.datajpa.entity.Team;
+
+public class TeamPrefetchRepositoryImpl implements TeamPrefetchRepository {
+
+    private final EntityManager em;
+
+    public TeamPrefetchRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public void prefetchMembers(Collection<Team> teams) {
+        Set<Long> teamIds = teams.stream()
+                .filter(team -> !Hibernate.isInitialized(team.getMembers()))
+                .map(Team::getId)
+                .collect(Collectors.toSet());
+        if (teamIds.isEmpty()) {
+            return;
+        }
+
+        em.createQuery("select distinct t from Team t left join fetch t.members where t.id in :ids", Team.class)
+                .setParameter("ids", teamIds)
+                .getResultList();
+    }
+}
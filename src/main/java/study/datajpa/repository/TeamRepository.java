@@ -1,8 +1,17 @@
 package study.datajpa.repository;
 
+import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+@Transactional(readOnly = true)
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamPrefetchRepository {
+
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Team> findAll();
 
 }
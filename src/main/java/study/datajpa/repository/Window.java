@@ -0,0 +1,35 @@
+package study.datajpa.repository;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * 키셋(seek) 페이징 결과.
+ * 오프셋 대신 마지막으로 읽은 키를 불투명 커서로 넘겨서, 몇 번째 페이지든 첫 페이지와 같은 비용으로 읽는다.
+ */
+@Getter
+public class Window<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public Window(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isLast() {
+        return !hasNext();
+    }
+
+    public <U> Window<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new Window<>(converted, nextCursor);
+    }
+}
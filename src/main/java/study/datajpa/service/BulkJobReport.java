@@ -0,0 +1,29 @@
+package study.datajpa.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkJobReport {
+
+    private final Long jobId;
+    private final int processedChunks;
+    private final int skippedChunks;
+    private final long updatedRows;
+    private final Duration elapsed;
+
+    public BulkJobReport(Long jobId, int processedChunks, int skippedChunks, long updatedRows, Duration elapsed) {
+        this.jobId = jobId;
+        this.processedChunks = processedChunks;
+        this.skippedChunks = skippedChunks;
+        this.updatedRows = updatedRows;
+        this.elapsed = elapsed;
+    }
+
+    public double getRowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return updatedRows * 1000.0 / millis;
+    }
+}
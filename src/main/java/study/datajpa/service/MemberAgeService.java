@@ -0,0 +1,39 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 같은 회원을 동시에 수정하는 두 가지 방식.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberAgeService {
+
+    private final MemberRepository memberRepository;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+
+    /**
+     * SELECT ... FOR UPDATE 로 행을 잡고 수정한다. 같은 회원을 수정하려는 다른 트랜잭션은 커밋까지 기다린다.
+     */
+    @Transactional
+    public int increaseAgePessimistic(String username) {
+        Member member = memberRepository.findLockByUsername(username).get(0);
+        member.setAge(member.getAge() + 1);
+        return member.getAge();
+    }
+
+    /**
+     * 잠금 없이 읽고, 커밋 때 버전이 바뀌어 있으면 다시 읽어서 재시도한다.
+     */
+    public int increaseAgeOptimistic(String username) {
+        return optimisticRetryTemplate.execute(() -> {
+            Member member = memberRepository.findByUsername(username);
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+}
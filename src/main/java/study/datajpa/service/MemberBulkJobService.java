@@ -0,0 +1,109 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BulkJob;
+import study.datajpa.entity.BulkJobChunk;
+import study.datajpa.repository.BulkJobChunkRepository;
+import study.datajpa.repository.BulkJobRepository;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * update Member m set m.age = m.age + 1 where m.age >= :age 를 id 범위 청크로 나눠 병렬로 실행한다.
+ * 청크마다 별도 트랜잭션으로 커밋하고, 같은 트랜잭션에서 체크포인트를 남기므로
+ * 중간에 죽어도 {@link #run(Long)}을 다시 부르면 남은 청크만 이어서 처리한다.
+ */
+@Slf4j
+@Service
+public class MemberBulkJobService {
+
+    private final MemberRepository memberRepository;
+    private final BulkJobRepository bulkJobRepository;
+    private final BulkJobChunkRepository bulkJobChunkRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate chunkTransaction;
+    private final Counter updatedRows;
+    private final Timer chunkTimer;
+
+    public MemberBulkJobService(MemberRepository memberRepository, BulkJobRepository bulkJobRepository,
+            BulkJobChunkRepository bulkJobChunkRepository,
+            @Qualifier("bulkJobExecutor") ThreadPoolTaskExecutor executor,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.bulkJobRepository = bulkJobRepository;
+        this.bulkJobChunkRepository = bulkJobChunkRepository;
+        this.executor = executor;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.updatedRows = meterRegistry.counter("member.bulk.updated.rows");
+        this.chunkTimer = meterRegistry.timer("member.bulk.chunk");
+    }
+
+    /**
+     * 지금 시점의 id 범위로 작업을 등록만 한다. 이후에 들어오는 회원은 대상이 아니다.
+     */
+    public BulkJob start(int age, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        Long minId = memberRepository.findMinId();
+        Long maxId = memberRepository.findMaxId();
+        BulkJob job = minId == null
+                ? new BulkJob(age, 1, 0, chunkSize) // 회원이 없으면 빈 작업
+                : new BulkJob(age, minId, maxId, chunkSize);
+        return bulkJobRepository.save(job);
+    }
+
+    public BulkJobReport run(Long jobId) {
+        BulkJob job = bulkJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("No bulk job: " + jobId));
+        Set<Integer> completed = bulkJobChunkRepository.findCompletedChunkIndexes(jobId);
+
+        long startedAt = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int chunkIndex = 0; chunkIndex < job.getTotalChunks(); chunkIndex++) {
+            if (completed.contains(chunkIndex)) {
+                continue;
+            }
+            int index = chunkIndex;
+            futures.add(CompletableFuture.runAsync(() -> rows.addAndGet(runChunk(job, index)), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        chunkTransaction.executeWithoutResult(status -> {
+            BulkJob managed = bulkJobRepository.findById(jobId).orElseThrow();
+            managed.complete();
+        });
+
+        BulkJobReport report = new BulkJobReport(jobId, futures.size(), completed.size(), rows.get(),
+                Duration.ofNanos(System.nanoTime() - startedAt));
+        log.info("bulk job finished: {}", report);
+        return report;
+    }
+
+    private int runChunk(BulkJob job, int chunkIndex) {
+        int updated = chunkTimer.record(() -> chunkTransaction.execute(status -> {
+            int count = memberRepository.bulkAgePlusInRange(job.getAge(),
+                    job.chunkStartId(chunkIndex), job.chunkEndId(chunkIndex));
+            bulkJobChunkRepository.save(new BulkJobChunk(job, chunkIndex, count));
+            return count;
+        }));
+        updatedRows.increment(updated); // 커밋된 청크만 센다
+        return updated;
+    }
+}
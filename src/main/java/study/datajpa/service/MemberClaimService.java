@@ -0,0 +1,31 @@
+package study.datajpa.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.ClaimMode;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 회원 테이블을 작업 큐처럼 쓴다. 워커마다 processBatch를 반복 호출하면
+ * SKIP_LOCKED 모드에서는 서로 다른 회원 묶음을 동시에 처리하고, WAIT 모드에서는 같은 행을 두고 줄을 선다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberClaimService {
+
+    private final MemberRepository memberRepository;
+
+    /**
+     * 회원을 최대 batchSize 명 잠가서 processor로 처리하고 커밋한다. 처리한 회원 수를 돌려준다.
+     */
+    @Transactional
+    public int processBatch(int age, int batchSize, ClaimMode mode, Consumer<Member> processor) {
+        List<Member> claimed = memberRepository.claimByAge(age, batchSize, mode);
+        claimed.forEach(processor);
+        return claimed.size();
+    }
+}
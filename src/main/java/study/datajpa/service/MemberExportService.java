@@ -0,0 +1,65 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 회원 전체를 한 줄씩 써 내려간다. DTO 스트림을 쓰므로 영속성 컨텍스트에 아무것도 쌓이지 않고,
+ * 테이블 크기와 상관없이 메모리 사용량이 일정하다.
+ * 내보내기는 일부러 DTO만 쓴다. 엔티티가 필요한 일괄 처리는 읽으면서 detach 하는 MemberJpaRepository.streamAll을 쓴다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("id,username,teamName\n");
+        }
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            members.forEach(member -> {
+                try {
+                    writer.write(format == ExportFormat.CSV ? toCsv(member) : objectMapper.writeValueAsString(member));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(MemberDto member) {
+        return member.getId() + "," + csvField(member.getUsername()) + "," + csvField(member.getTeamName());
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
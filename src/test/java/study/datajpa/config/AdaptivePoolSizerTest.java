@@ -0,0 +1,73 @@
+package study.datajpa.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import study.datajpa.monitor.ConnectionMetricsDataSource;
+
+/**
+ * 인메모리 H2 풀(최대 2개)로 커넥션을 기다리는 스레드가 생기면 늘리고, 한가해지면 줄이는지 본다.
+ */
+class AdaptivePoolSizerTest {
+
+    HikariDataSource hikari;
+    ConnectionMetricsDataSource dataSource;
+    AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:adaptive;DB_CLOSE_DELAY=-1");
+        hikari.setUsername("sa");
+        hikari.setMaximumPoolSize(2);
+        hikari.setConnectionTimeout(5000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource = new ConnectionMetricsDataSource(hikari, "test", () -> registry);
+        dataSource.getConnection().close(); // 풀을 시작시킨다
+
+        sizer = new AdaptivePoolSizer(hikari.getHikariConfigMXBean(), hikari.getHikariPoolMXBean(), dataSource,
+                2, 4, 2, Duration.ofMillis(50), Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sizer.destroy();
+        hikari.close();
+    }
+
+    @Test
+    void growWhileThreadsWaitThenShrinkWhenIdle() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (hikari.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+            Thread.sleep(10);
+        }
+
+        sizer.adjust();
+        assertThat(sizer.getMaximumPoolSize()).isEqualTo(4);
+
+        first.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        second.close();
+
+        sizer.adjust(); // 방금 구간에는 오래 기다린 호출이 있었으므로 그대로(최대값)
+        assertThat(sizer.getMaximumPoolSize()).isEqualTo(4);
+        sizer.adjust(); // 기다린 호출이 없고 커넥션이 놀고 있다
+        assertThat(sizer.getMaximumPoolSize()).isEqualTo(2);
+    }
+}
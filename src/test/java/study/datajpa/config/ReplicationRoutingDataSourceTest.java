@@ -0,0 +1,72 @@
+package study.datajpa.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 인메모리 H2 두 개를 프라이머리/레플리카로 놓고 라우팅만 확인한다.
+ */
+class ReplicationRoutingDataSourceTest {
+
+    ReplicationRoutingDataSource routing;
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.destroy();
+    }
+
+    @Test
+    void routeByReadOnly() {
+        setUp(null);
+
+        assertThat(transaction(false).execute(status -> currentUrl())).contains("primary");
+        assertThat(transaction(true).execute(status -> currentUrl())).contains("replica");
+    }
+
+    @Test
+    void fallbackToPrimaryWhenReplicaIsLagging() {
+        setUp("select 10"); // 레플리카가 10초 뒤처져 있다고 가정
+        routing.checkReplica();
+
+        assertThat(routing.isReplicaUsable()).isFalse();
+        assertThat(transaction(true).execute(status -> currentUrl())).contains("primary");
+    }
+
+    private void setUp(String lagQuery) {
+        routing = new ReplicationRoutingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", ""),
+                new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""),
+                lagQuery, Duration.ofSeconds(5));
+        routing.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private String currentUrl() {
+        Connection connection = DataSourceUtils.getConnection(dataSource); // 트랜잭션에 묶인 커넥션
+        try {
+            return connection.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
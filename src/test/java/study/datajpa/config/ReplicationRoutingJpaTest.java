@@ -0,0 +1,68 @@
+package study.datajpa.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * ReplicationRoutingDataSourceTest와 달리 실제 경로(JpaTransactionManager + LazyConnectionDataSourceProxy)로
+ * 읽기 전용 리포지토리 호출이 레플리카로 가는지 확인한다.
+ * 레플리카에는 스키마만 복사하고 행은 넣지 않으므로, 시작할 때 프라이머리에 저장한 member1이 보이는지로 경로를 구분한다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.primary.jdbc-url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"})
+class ReplicationRoutingJpaTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void copySchemaToReplica() throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection("jdbc:h2:mem:routing-primary", "sa", "");
+                Statement statement = primary.createStatement();
+                ResultSet rs = statement.executeQuery("SCRIPT NODATA")) {
+            while (rs.next()) {
+                ddl.add(rs.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection("jdbc:h2:mem:routing-replica", "sa", "");
+                Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @Test
+    void readOnlyRepositoryCallGoesToReplica() {
+        // 리포지토리 기본값인 @Transactional(readOnly = true)로 새 트랜잭션을 연다
+        assertThat(memberRepository.findByUsername("member1")).isNull();
+    }
+
+    @Test
+    void readOnlyCallJoinsWritableTransactionOnPrimary() {
+        TransactionTemplate writable = new TransactionTemplate(transactionManager);
+
+        assertThat(writable.execute(status -> memberRepository.findByUsername("member1"))).isNotNull();
+    }
+}
@@ -80,4 +80,35 @@ class MemberTest {
         System.out.println("find = " + find.getCreatedBy());
         System.out.println("find = " + find.getLastModifiedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    void auditPerTransactionAndFlush() throws InterruptedException {
+        Member member1 = memberRepository.save(new Member("member1"));
+        Member member2 = memberRepository.save(new Member("member2"));
+        em.flush();
+        Thread.sleep(10);
+
+        // 같은 flush에서 갱신되는 엔티티는 시각을 한 번만 구해서 같이 쓴다
+        member1.setUsername("member1Update");
+        member2.setUsername("member2Update");
+        em.flush();
+
+        assertThat(member2.getLastModifiedDate()).isEqualTo(member1.getLastModifiedDate());
+        assertThat(member1.getLastModifiedDate()).isAfter(member1.getCreatedDate());
+        // 작성자는 트랜잭션이 끝날 때까지 그대로 쓴다
+        assertThat(member2.getCreatedBy()).isEqualTo(member1.getCreatedBy());
+        assertThat(member2.getLastModifiedBy()).isEqualTo(member1.getCreatedBy());
+    }
+
+    @Test
+    void persistAcrossTimeGapWithinOneFlush() throws InterruptedException {
+        Member member1 = memberRepository.save(new Member("member1"));
+        Thread.sleep(10);
+        Member member2 = memberRepository.save(new Member("member2"));
+
+        em.flush(); // 두 회원이 같은 flush로 insert 된다
+
+        // @PrePersist는 persist 시점에 불리므로 각자 그때 시각을 받는다
+        assertThat(member2.getCreatedDate()).isAfter(member1.getCreatedDate());
+    }
+}
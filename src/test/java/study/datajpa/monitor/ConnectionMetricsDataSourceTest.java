@@ -0,0 +1,49 @@
+package study.datajpa.monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import study.datajpa.repository.MemberRepository;
+
+// 리포지토리 메서드가 스스로 트랜잭션을 열면서 커넥션을 얻어야 하므로 테스트 트랜잭션을 걸지 않는다
+@SpringBootTest
+class ConnectionMetricsDataSourceTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void attributeConnectionToRepositoryMethod() {
+        memberRepository.findByUsername("nobody");
+
+        Timer acquire = meterRegistry.get("datasource.connection.acquire")
+                .tags("method", "MemberRepository.findByUsername", "route", "none").timer();
+        Timer usage = meterRegistry.get("datasource.connection.usage")
+                .tags("method", "MemberRepository.findByUsername").timer();
+        assertThat(acquire.count()).isGreaterThanOrEqualTo(1);
+        assertThat(usage.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void countAcquisitionsWithoutRegistry() throws SQLException {
+        ConnectionMetricsDataSource dataSource = new ConnectionMetricsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:metrics-no-registry", "sa", ""), "test", () -> null);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+
+        assertThat(dataSource.getAcquireCount()).isEqualTo(1);
+        assertThat(dataSource.getAcquireNanos()).isPositive();
+    }
+}
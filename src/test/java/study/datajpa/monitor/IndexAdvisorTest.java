@@ -0,0 +1,32 @@
+package study.datajpa.monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "datajpa.index-advisor.enabled=true") // 기본값은 꺼져 있다
+class IndexAdvisorTest {
+
+    @Autowired
+    IndexAdvisor indexAdvisor;
+
+    @Test
+    void memberLookupsUseIndexes() {
+        assertThat(indexAdvisor.getExplainedMethods())
+                .contains("MemberRepository.findByUsername", "MemberRepository.findListByUsername",
+                        "MemberRepository.findMember");
+        assertThat(indexAdvisor.getFullScans())
+                .doesNotContainKeys("MemberRepository.findByUsername", "MemberRepository.findListByUsername",
+                        "MemberRepository.findLockByUsername", "MemberRepository.findByNames");
+    }
+
+    @Test
+    void reportFullScanWithoutIndex() throws Exception {
+        String plan = indexAdvisor.explain("select * from team where name = ?"); // team.name에는 인덱스가 없다
+
+        assertThat(IndexAdvisor.isFullScan(plan)).isTrue();
+        assertThat(IndexAdvisor.isFullScan(indexAdvisor.explain("select * from member where username = ?"))).isFalse();
+    }
+}
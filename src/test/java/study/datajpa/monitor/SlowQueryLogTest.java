@@ -0,0 +1,37 @@
+package study.datajpa.monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.repository.MemberRepository;
+
+@Transactional
+@SpringBootTest(properties = "datajpa.slow-query.threshold=0ms") // 모든 쿼리를 느린 쿼리로 본다
+class SlowQueryLogTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
+    @Test
+    void captureRepositoryMethodAndParameters() {
+        slowQueryLog.clear();
+
+        memberRepository.findByUsername("slowMember");
+        memberRepository.findByNativeProjection(PageRequest.of(0, 10));
+
+        assertThat(slowQueryLog.recent())
+                .extracting(SlowQuery::getRepositoryMethod)
+                .contains("MemberRepository.findByUsername", "MemberRepository.findByNativeProjection");
+        SlowQuery findByUsername = slowQueryLog.recent().stream()
+                .filter(query -> "MemberRepository.findByUsername".equals(query.getRepositoryMethod()))
+                .findFirst().orElseThrow();
+        assertThat(findByUsername.getParameters().get(0)).containsExactly("slowMember");
+    }
+}
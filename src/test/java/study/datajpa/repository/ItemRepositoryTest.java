@@ -1,20 +1,67 @@
 package study.datajpa.repository;
 
-import static org.junit.jupiter.api.Assertions.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
-@SpringBootTest
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class ItemRepositoryTest {
 
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    EntityManager em;
+
     @Test
     void saveTest() {
-        itemRepository.save(new Item());
+        Item item = new Item(1L);
+        assertThat(item.isNew()).isTrue();
+
+        itemRepository.save(item);
+
+        assertThat(item.isNew()).isFalse(); // persist 시점에 createdDate가 채워진다
+    }
+
+    @Test
+    void saveWithoutSelect() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Item> items = new ArrayList<>();
+        for (long id = 100; id < 110; id++) {
+            items.add(new Item(id));
+        }
+        itemRepository.saveAll(items);
+        em.flush();
+
+        // INSERT 한 종류를 배치로 보내므로 준비된 문장은 하나뿐이다
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void mergeSelectsBeforeInsert() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (long id = 200; id < 210; id++) {
+            em.merge(new Item(id));
+        }
+        em.flush();
+
+        // isNew를 판단하지 못하면 save()가 이렇게 동작한다: 아이템마다 SELECT 한 번 + 배치 INSERT 하나
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(11);
     }
-}
\ No newline at end of file
+}
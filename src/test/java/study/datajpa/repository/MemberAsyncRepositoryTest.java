@@ -0,0 +1,79 @@
+package study.datajpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.config.BoundedRepositoryExecutor;
+import study.datajpa.entity.Member;
+
+// 비동기 호출은 다른 스레드의 트랜잭션에서 돌기 때문에 테스트 트랜잭션을 걸지 않고 직접 정리한다
+@SpringBootTest(properties = {"datajpa.async.threads=2", "datajpa.async.max-in-flight=2"})
+class MemberAsyncRepositoryTest {
+
+    @Autowired
+    MemberAsyncRepository memberAsyncRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    BoundedRepositoryExecutor repositoryExecutor;
+
+    // 공유 DB라 시작할 때 넣은 회원은 남기고 이 테스트가 만든 행만 지운다
+    private final List<Member> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void saveAndFind() throws Exception {
+        List<Member> saved = memberAsyncRepository.saveAll(List.of(new Member("async1"), new Member("async2")))
+                .get(10, TimeUnit.SECONDS);
+        created.addAll(saved);
+
+        Member found = memberAsyncRepository.findByUsername("async2").get(10, TimeUnit.SECONDS);
+
+        assertThat(found.getId()).isEqualTo(saved.get(1).getId());
+        assertThat(repositoryExecutor.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectWhenTooManyInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = repositoryExecutor.submit(() -> await(release));
+        CompletableFuture<Boolean> second = repositoryExecutor.submit(() -> await(release));
+
+        CompletableFuture<Member> rejected = memberAsyncRepository.findByUsername("async1");
+
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
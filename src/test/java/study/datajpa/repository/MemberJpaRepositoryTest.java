@@ -2,7 +2,10 @@ package study.datajpa.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,6 +19,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     private MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    private EntityManager em;
+
     @Test
     void save() {
         Member member = new Member("memberA");
@@ -89,6 +95,42 @@ class MemberJpaRepositoryTest {
         assertThat(l).isEqualTo(5);
     }
 
+    @Test
+    void keysetPaging() {
+        Member member1 = new Member("memberA1", 10, null);
+        Member member2 = new Member("memberA2", 10, null);
+        Member member3 = new Member("memberA3", 10, null);
+
+        memberJpaRepository.save(member1);
+        memberJpaRepository.save(member2);
+        memberJpaRepository.save(member3);
+
+        List<Member> first = memberJpaRepository.findByKeyset(10, null, 2);
+        List<Member> next = memberJpaRepository.findByKeyset(10, first.get(1).getId(), 2);
+
+        assertThat(first).containsExactly(member1, member2);
+        assertThat(next).containsExactly(member3);
+    }
+
+    @Test
+    void saveAllInBatch() {
+        Member managed = memberJpaRepository.save(new Member("managed"));
+        long before = memberJpaRepository.count();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("member" + i, i % 10, null));
+        }
+
+        int saved = memberJpaRepository.saveAllInBatch(members);
+
+        assertThat(saved).isEqualTo(250);
+        assertThat(memberJpaRepository.count()).isEqualTo(before + 250);
+        assertThat(members).allMatch(member -> member.getId() != null);
+        // 저장한 회원만 detach 하고, 원래 영속 상태였던 엔티티는 건드리지 않는다
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(em.contains(managed)).isTrue();
+    }
+
     @Test
     void bulk() {
         Member member1 = new Member("memberA1", 10, null);
@@ -107,4 +149,28 @@ class MemberJpaRepositoryTest {
 
         assertThat(updated).isEqualTo(3);
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamAllDetachesEveryFetchSize() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(memberJpaRepository.save(new Member("stream" + i, i, null)));
+        }
+        em.flush();
+
+        List<Member> seen = new ArrayList<>();
+        try (Stream<Member> stream = memberJpaRepository.streamAll(2)) {
+            stream.forEach(member -> {
+                seen.add(member);
+                if (seen.size() == 3) {
+                    // 세 번째를 읽을 때 앞의 두 건은 이미 detach 되었다
+                    assertThat(em.contains(seen.get(0))).isFalse();
+                    assertThat(em.contains(seen.get(2))).isTrue();
+                }
+            });
+        }
+
+        assertThat(seen).hasSizeGreaterThanOrEqualTo(members.size());
+        assertThat(members).noneMatch(em::contains);
+    }
+}
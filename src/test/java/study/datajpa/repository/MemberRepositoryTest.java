@@ -3,10 +3,18 @@ package study.datajpa.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import javax.persistence.NonUniqueResultException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -23,6 +31,8 @@ import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.monitor.QueryCountScope;
+import study.datajpa.monitor.QueryCounter;
 
 @Transactional
 @SpringBootTest
@@ -37,6 +47,9 @@ class MemberRepositoryTest {
     @Autowired
     EntityManager em;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Test
     void save() {
         Member member = new Member("newMember");
@@ -127,6 +140,29 @@ class MemberRepositoryTest {
         assertThat(find.getTeamName()).isEqualTo(t1.getName());
     }
 
+    @Test
+    void findDtoPageTest() {
+        Team t1 = new Team("Team1");
+        teamRepository.save(t1);
+        long before = memberRepository.count(); // 시작할 때 넣은 member1, member2 등 공유 DB의 행
+
+        memberRepository.save(new Member("AAA", 10, t1));
+        memberRepository.save(new Member("BBB", 20, null));
+        em.flush();
+        em.clear();
+
+        Page<MemberDto> result = memberRepository.findDtoPage(
+                PageRequest.of(0, 10, Sort.by("username")), CountMode.EXACT);
+
+        assertThat(result.getTotalElements()).isEqualTo(before + 2);
+        List<MemberDto> created = result.getContent().stream()
+                .filter(dto -> List.of("AAA", "BBB").contains(dto.getUsername()))
+                .collect(Collectors.toList());
+        assertThat(created).extracting("username").containsExactly("AAA", "BBB");
+        assertThat(created).extracting("teamName").containsExactly("Team1", null);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0); // 엔티티를 올리지 않았다
+    }
+
     @Test
     void findByNamesTest() {
         Member m1 = new Member("AAA1", 10, null);
@@ -140,6 +176,20 @@ class MemberRepositoryTest {
         assertThat(find.size()).isEqualTo(2);
     }
 
+    @Test
+    void inClauseParameterPadding() {
+        memberRepository.save(new Member("AAA1", 10, null));
+        em.flush();
+
+        // 파라미터 3개와 4개가 같은 SQL(4개짜리)로 나간다
+        try (QueryCountScope scope = QueryCounter.start()) {
+            memberRepository.findByNames(List.of("AAA1", "AAA2", "AAA3"));
+            memberRepository.findByNames(List.of("AAA1", "AAA2", "AAA3", "AAA4"));
+
+            assertThat(scope.findRepeatedSelects(2)).hasSize(1);
+        }
+    }
+
     @Test
     void findManyTypeNamesTest() {
         Member m1 = new Member("AAA1", 10, null);
@@ -193,6 +243,56 @@ class MemberRepositoryTest {
         assertThat(result.hasNext()).isTrue();
     }
 
+    @Test
+    void keysetPaging() {
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("memberA" + i, 10, null));
+        }
+        memberRepository.save(new Member("memberB", 20, null));
+
+        Window<Member> first = memberRepository.findWindowByAge(10, null, 2);
+        Window<Member> second = memberRepository.findWindowByAge(10, first.getNextCursor(), 2);
+        Window<Member> last = memberRepository.findWindowByAge(10, second.getNextCursor(), 2);
+
+        assertThat(first.getContent()).extracting("username").containsExactly("memberA1", "memberA2");
+        assertThat(second.getContent()).extracting("username").containsExactly("memberA3", "memberA4");
+        assertThat(last.getContent()).extracting("username").containsExactly("memberA5");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.hasNext()).isFalse();
+
+        assertThatThrownBy(() -> memberRepository.findWindow("not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cachedCountPaging() {
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("memberA" + i, 10, null));
+        }
+
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Direction.DESC, "username"));
+        Page<Member> result = memberRepository.findPageByAge(10, pageRequest, CountMode.CACHED);
+
+        assertThat(result.getNumberOfElements()).isEqualTo(3);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent().get(0).getUsername()).isEqualTo("memberA5");
+
+        // insert가 나가면 캐시된 count는 무효화된다
+        memberRepository.save(new Member("memberA6", 10, null));
+        assertThat(memberRepository.findPageByAge(10, pageRequest, CountMode.CACHED).getTotalElements())
+                .isEqualTo(6);
+
+        // 첫 페이지가 덜 차면 count 쿼리 없이 content 크기가 곧 totalCount다
+        Page<Member> shortPage = memberRepository.findPageByAge(10, PageRequest.of(0, 10), CountMode.EXACT);
+        assertThat(shortPage.getTotalElements()).isEqualTo(6);
+
+        // 전체 삭제(delete from member, 조건 없음)도 무효화한다. 두 번째 페이지가 비면 count 쿼리 결과를 그대로 쓴다
+        PageRequest secondPage = PageRequest.of(1, 3);
+        memberRepository.findPageByAge(10, secondPage, CountMode.CACHED);
+        memberRepository.deleteAllInBatch(); // 테스트 트랜잭션이 롤백하므로 공유 DB에는 남지 않는다
+        assertThat(memberRepository.findPageByAge(10, secondPage, CountMode.CACHED).getTotalElements()).isZero();
+    }
+
     @Test
     void bulk() {
         Member member1 = new Member("memberA1", 10, null);
@@ -231,6 +331,57 @@ class MemberRepositoryTest {
          */
     }
 
+    @Test
+    void secondLevelCache() {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        memberRepository.save(member1);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        teamRepository.findById(teamA.getId()); // 미스 -> DB 조회 후 캐시에 적재
+        em.clear();
+        long hitBefore = statistics.getSecondLevelCacheHitCount();
+
+        teamRepository.findById(teamA.getId());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hitBefore + 1);
+        // hibernate-micrometer가 리전별 히트/미스를 메트릭으로 노출한다
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "study.datajpa.entity.Team").tag("result", "hit").functionCounter())
+                .isNotNull()
+                .satisfies(counter -> assertThat(counter.count()).isGreaterThanOrEqualTo(1));
+
+        // 벌크 연산은 Hibernate가 Member 리전을 통째로 비우므로 캐시에서 옛 값을 읽지 않는다
+        memberRepository.findById(member1.getId());
+        memberRepository.bulkAgePlus(10);
+        em.clear();
+        assertThat(memberRepository.findById(member1.getId()).get().getAge()).isEqualTo(11);
+    }
+
+    @Test
+    void bulkWithoutClear() {
+        Member member1 = new Member("memberA1", 10, null);
+        Member member2 = new Member("memberA2", 14, null);
+        Member member3 = new Member("memberA3", 15, null);
+        Member member4 = new Member("memberA4", 16, null);
+        Member member5 = new Member("memberA5", 17, null);
+
+        memberRepository.saveAll(List.of(member1, member2, member3, member4, member5));
+
+        BulkUpdateResult result = memberRepository.bulkAgePlus(15, 2);
+
+        assertThat(result.getUpdatedIds()).containsExactly(member3.getId(), member4.getId(), member5.getId());
+        assertThat(result.getChunkCount()).isEqualTo(2);
+
+        // em.clear() 없이도 영속 상태의 회원에 바로 반영되고, 바뀌지 않은 회원은 그대로 관리된다
+        assertThat(memberRepository.findByUsername("memberA5").getAge()).isEqualTo(18);
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(member1.getAge()).isEqualTo(10);
+    }
+
     @Test
     void findMemberLazy() {
         // given
@@ -257,6 +408,91 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    void streamMember() {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("streamA", 10, teamA));
+        memberRepository.save(new Member("streamB", 15, null));
+        em.flush();
+        em.clear();
+
+        // 공유 DB에 시작할 때 넣은 회원도 함께 나오므로 이 테스트가 만든 회원만 본다
+        List<String> created = List.of("streamA", "streamB");
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            assertThat(stream.filter(dto -> created.contains(dto.getUsername())).map(MemberDto::getTeamName))
+                    .containsExactly("teamA", null);
+        }
+        try (Stream<Member> stream = memberRepository.streamMemberFetch()) {
+            assertThat(stream.map(Member::getUsername).filter(created::contains))
+                    .containsExactly("streamA", "streamB");
+        }
+    }
+
+    @Test
+    void queryBudget() {
+        List<Team> teams = List.of(new Team("teamA"), new Team("teamB"), new Team("teamC"));
+        teamRepository.saveAll(teams);
+        for (Team team : teams) {
+            memberRepository.save(new Member("member" + team.getName(), 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        // 루프 안에서 회원마다 같은 쿼리를 반복하는 N+1
+        try (QueryCountScope scope = QueryCounter.start()) {
+            for (String username : List.of("memberteamA", "memberteamB", "memberteamC")) {
+                memberRepository.findByUsername(username);
+            }
+
+            assertThat(scope.findRepeatedSelects(3)).hasSize(1);
+        }
+        em.clear();
+
+        // 지연 로딩 예산: 회원 1번 + Member.team IN 1번 + Team.members IN 1번.
+        // 배치 페치가 빠지면 팀마다, 컬렉션마다 쿼리가 늘어나서(1 + 3 + 3) 여기서 걸린다.
+        QueryCounter.withinBudget(3, () ->
+                memberRepository.findByNames(List.of("memberteamA", "memberteamB", "memberteamC"))
+                        .forEach(member -> member.getTeam().getMembers().size()));
+        em.clear();
+
+        // 페치 조인: 쿼리 1번
+        QueryCounter.withinBudget(1, () ->
+                memberRepository.findMemberFetch().forEach(member -> member.getTeam().getName()));
+    }
+
+    @Test
+    void batchFetch() {
+        List<Team> teams = List.of(new Team("teamA"), new Team("teamB"), new Team("teamC"));
+        teamRepository.saveAll(teams);
+        for (Team team : teams) {
+            memberRepository.save(new Member("member" + team.getName(), 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        // default_batch_fetch_size: 지연 로딩이 팀 수와 상관없이 IN 쿼리 한 번으로 묶인다
+        try (QueryCountScope scope = QueryCounter.start()) {
+            memberRepository.findByNames(List.of("memberteamA", "memberteamB", "memberteamC"))
+                    .forEach(member -> member.getTeam().getName());
+
+            assertThat(scope.getStatementCount()).isEqualTo(2);
+        }
+        em.clear();
+
+        // prefetchTeams: 순회 전에 미리 읽어 두면 순회 중에는 쿼리가 나가지 않는다
+        List<Member> members = memberRepository.findByNames(
+                List.of("memberteamA", "memberteamB", "memberteamC"));
+        memberRepository.prefetchTeams(members);
+        QueryCounter.withinBudget(0, () -> members.forEach(member -> member.getTeam().getName()));
+        em.clear();
+
+        List<Team> findTeams = teamRepository.findAllById(
+                teams.stream().map(Team::getId).collect(Collectors.toList()));
+        teamRepository.prefetchMembers(findTeams);
+        QueryCounter.withinBudget(0, () -> findTeams.forEach(team -> assertThat(team.getMembers()).hasSize(1)));
+    }
+
     @Test
     void queryHint() {
         Member member1 = new Member("member1", 10, null);
@@ -269,6 +505,26 @@ class MemberRepositoryTest {
         em.flush();
     }
 
+    @Test
+    void readOnlyFinder() {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        Long id = memberRepository.save(new Member("readOnlyMember", 10, teamA)).getId();
+        em.flush();
+        em.clear();
+
+        Member find = memberRepository.findMemberFetch().stream()
+                .filter(member -> member.getId().equals(id))
+                .findFirst().orElseThrow();
+        assertThat(em.unwrap(Session.class).isReadOnly(find)).isTrue();
+
+        find.setUsername("readOnlyMemberUpdate"); // 스냅샷이 없으므로 변경 감지 대상이 아니다
+        em.flush();
+        em.clear();
+
+        assertThat(memberRepository.findById(id).orElseThrow().getUsername()).isEqualTo("readOnlyMember");
+    }
+
     @Test
     void lock() {
         Member member1 = new Member("member1", 10, null);
@@ -279,6 +535,34 @@ class MemberRepositoryTest {
         Member find = memberRepository.findLockByUsername(member1.getUsername()).get(0);
     }
 
+    @Test
+    void repositoryMethodMetrics() {
+        memberRepository.save(new Member("AAA1", 10, null));
+        memberRepository.save(new Member("AAA2", 20, null));
+
+        memberRepository.findByNames(List.of("AAA1", "AAA2"));
+        memberRepository.findListByUsername("AAA1");
+
+        DistributionSummary rows = meterRegistry.get("repository.method.rows")
+                .tags("repository", "MemberRepository", "method", "findByNames", "type", "query").summary();
+        assertThat(rows.totalAmount()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("repository.method.latency")
+                .tags("method", "findListByUsername", "type", "derived").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("repository.method.statements")
+                .tags("method", "findListByUsername").summary().totalAmount()).isGreaterThanOrEqualTo(1);
+
+        // Stream은 close 할 때 실제로 읽은 행 수가 기록된다
+        em.flush();
+        int streamed;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            streamed = stream.collect(Collectors.toList()).size();
+        }
+        DistributionSummary streamRows = meterRegistry.get("repository.method.rows")
+                .tags("method", "streamMemberDto").summary();
+        assertThat(streamRows.max()).isEqualTo(streamed);
+        assertThat(streamed).isGreaterThanOrEqualTo(2);
+    }
+
     @Test
     void customRepositoryMethod() {
         memberRepository.findCustomMember(); // 사용자 정의 리포지토리 메서드
@@ -306,6 +590,63 @@ class MemberRepositoryTest {
         assertThat(((Member)findAll.get(0)).getUsername()).isEqualTo(m1.getUsername());
     }
 
+    @Test
+    void specFilterSearch() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("m1", 0, teamA));
+        em.persist(new Member("m2", 0, teamA));
+        em.persist(new Member("m1", 0, teamB));
+        em.flush();
+        em.clear();
+
+        for (MemberFilter filter : List.of(MemberFilter.of(null, null), MemberFilter.of("m1", null),
+                MemberFilter.of(null, "teamA"), MemberFilter.of("m1", "teamA"))) {
+            List<Member> expected = memberRepository.findAll(filter.toSpecification());
+            assertThat(memberRepository.search(filter)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+
+        // 같은 모양이면 값만 바뀌어도 쿼리 플랜을 다시 만들지 않는다
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        assertThat(memberRepository.search(MemberFilter.of("m2", "teamA"))).hasSize(1);
+        assertThat(memberRepository.search(MemberFilter.of("m1", "teamB"))).hasSize(1);
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void criteriaSlice() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int age = 10; age <= 40; age += 10) {
+            em.persist(new Member("a" + age, age, teamA));
+            em.persist(new Member("b" + age, age, teamB));
+        }
+        em.flush();
+        em.clear();
+
+        MemberCriteria criteria = MemberCriteria.create()
+                .teamName("teamA")
+                .ageBetween(20, null)
+                .createdBetween(LocalDateTime.now().minusHours(1), null);
+
+        try (QueryCountScope scope = QueryCounter.start()) {
+            Slice<Member> first = memberRepository.findSlice(criteria, PageRequest.of(0, 2, Sort.by("age")));
+            Slice<Member> last = memberRepository.findSlice(criteria, PageRequest.of(1, 2, Sort.by("age")));
+
+            assertThat(first.getContent()).extracting(Member::getUsername).containsExactly("a20", "a30");
+            assertThat(first.hasNext()).isTrue();
+            assertThat(last.getContent()).extracting(Member::getUsername).containsExactly("a40");
+            assertThat(last.hasNext()).isFalse();
+            assertThat(scope.getStatementCount()).isEqualTo(2); // count 쿼리 없음
+        }
+        assertThat(memberRepository.findAll(MemberCriteria.create().username("b10"))).hasSize(1);
+    }
+
     @Test
     void queryByExample() {
         // given
@@ -409,5 +750,11 @@ class MemberRepositoryTest {
 
         // then
         assertThat(content.size()).isEqualTo(2);
+
+        // 팀 없는 회원은 내용에 안 나오므로 count에도 빠져야 한다
+        em.persist(new Member("m3", 0, null));
+        em.flush();
+        Page<MemberProjection> firstPage = memberRepository.findByNativeProjection(PageRequest.of(0, 1));
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.BulkJob;
+import study.datajpa.entity.BulkJobChunk;
+import study.datajpa.entity.BulkJobStatus;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.BulkJobChunkRepository;
+import study.datajpa.repository.BulkJobRepository;
+import study.datajpa.repository.MemberRepository;
+
+// 청크마다 커밋되는 것을 확인해야 하므로 테스트 트랜잭션을 걸지 않고 직접 정리한다
+@SpringBootTest
+class MemberBulkJobServiceTest {
+
+    @Autowired
+    MemberBulkJobService memberBulkJobService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    BulkJobRepository bulkJobRepository;
+
+    @Autowired
+    BulkJobChunkRepository bulkJobChunkRepository;
+
+    // 공유 DB라 시작할 때 넣은 회원(member1, member2)은 남기고 이 테스트가 만든 행만 지운다
+    private final List<Member> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        bulkJobChunkRepository.deleteAllInBatch();
+        bulkJobRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void runInChunks() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("bulk" + i, i, null));
+        }
+        created.addAll(memberRepository.saveAll(members));
+
+        BulkJob job = memberBulkJobService.start(10, 5);
+        BulkJobReport report = memberBulkJobService.run(job.getId());
+
+        assertThat(report.getUpdatedRows()).isEqualTo(15);
+        assertThat(memberRepository.findByUsername("bulk9").getAge()).isEqualTo(9);
+        assertThat(memberRepository.findByUsername("bulk10").getAge()).isEqualTo(11);
+        assertThat(bulkJobRepository.findById(job.getId()).get().getStatus()).isEqualTo(BulkJobStatus.COMPLETED);
+    }
+
+    @Test
+    void resumeFromCheckpoint() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("bulk" + i, 20, null));
+        }
+        created.addAll(memberRepository.saveAll(members));
+
+        BulkJob job = memberBulkJobService.start(10, 5);
+        bulkJobChunkRepository.save(new BulkJobChunk(job, 0, 5)); // 첫 청크까지 끝나고 죽었다고 가정
+
+        BulkJobReport report = memberBulkJobService.run(job.getId());
+
+        assertThat(report.getSkippedChunks()).isEqualTo(1);
+        assertThat(memberRepository.findByUsername("bulk0").getAge()).isEqualTo(20);
+        assertThat(memberRepository.findByUsername("bulk9").getAge()).isEqualTo(21);
+    }
+}
@@ -0,0 +1,119 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.ClaimMode;
+import study.datajpa.repository.MemberRepository;
+
+// 워커마다 별도 트랜잭션이 잠금을 잡아야 하므로 테스트 트랜잭션을 걸지 않고 직접 정리한다
+@SpringBootTest
+class MemberClaimServiceTest {
+
+    @Autowired
+    MemberClaimService memberClaimService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // 공유 DB라 시작할 때 넣은 회원은 남기고 이 테스트가 만든 claim* 행만 지운다
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        executor.shutdownNow();
+        memberRepository.deleteAllByIdInBatch(createdIds);
+        createdIds.clear();
+    }
+
+    private void saveMembers(int count, int age) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(new Member("claim" + i, age, null));
+        }
+        memberRepository.saveAll(members).forEach(member -> createdIds.add(member.getId()));
+    }
+
+    @Test
+    void skipLockedClaimsDisjointBatches() throws Exception {
+        saveMembers(40, 10);
+
+        // 네 워커가 모두 잠금을 잡은 상태에서 만나야 커밋하도록 해서, 동시에 가져간 묶음이 겹치지 않는지 본다
+        CyclicBarrier allClaimed = new CyclicBarrier(4);
+        Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            AtomicInteger processed = new AtomicInteger();
+            workers.add(executor.submit(() -> memberClaimService.processBatch(10, 10, ClaimMode.SKIP_LOCKED,
+                    member -> {
+                        claimedIds.add(member.getId());
+                        if (processed.incrementAndGet() == 10) {
+                            await(allClaimed);
+                        }
+                    })));
+        }
+        for (Future<Integer> worker : workers) {
+            assertThat(worker.get(10, TimeUnit.SECONDS)).isEqualTo(10);
+        }
+        assertThat(claimedIds).hasSize(40);
+    }
+
+    @Test
+    void nowaitFailsWhileAnotherWorkerHoldsTheRows() throws Exception {
+        saveMembers(5, 10);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> holder = executor.submit(() -> memberClaimService.processBatch(10, 5, ClaimMode.WAIT,
+                member -> {
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> memberClaimService.processBatch(10, 5, ClaimMode.NOWAIT, member -> {
+            })).isInstanceOf(PessimisticLockingFailureException.class);
+            assertThat(memberClaimService.processBatch(10, 5, ClaimMode.SKIP_LOCKED, member -> {
+            })).isZero();
+        } finally {
+            release.countDown();
+        }
+        assertThat(holder.get(10, TimeUnit.SECONDS)).isEqualTo(5);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Workers did not claim their batches concurrently", e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
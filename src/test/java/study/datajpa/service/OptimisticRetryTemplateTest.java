@@ -0,0 +1,84 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// 재시도마다 새 트랜잭션이 커밋되어야 하므로 테스트 트랜잭션을 걸지 않고 직접 정리한다
+@SpringBootTest
+class OptimisticRetryTemplateTest {
+
+    @Autowired
+    OptimisticRetryTemplate optimisticRetryTemplate;
+
+    @Autowired
+    MemberAgeService memberAgeService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // 공유 DB라 시작할 때 넣은 회원(member1, member2)과 겹치지 않는 이름을 쓰고, 이 테스트가 만든 행만 지운다
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(createdIds);
+        createdIds.clear();
+    }
+
+    private Member saveMember(int age) {
+        Member member = memberRepository.save(new Member("optimistic-" + UUID.randomUUID(), age, null));
+        createdIds.add(member.getId());
+        return member;
+    }
+
+    @Test
+    void retryOnConflict() {
+        Long id = saveMember(10).getId();
+
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger attempts = new AtomicInteger();
+        int age = optimisticRetryTemplate.execute(() -> {
+            Member member = memberRepository.findById(id).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                // 읽은 뒤 커밋 전에 다른 트랜잭션이 먼저 수정한다
+                other.executeWithoutResult(status -> memberRepository.findById(id).orElseThrow().setAge(99));
+            }
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(age).isEqualTo(100);
+        assertThat(memberRepository.findById(id).orElseThrow().getAge()).isEqualTo(100);
+    }
+
+    @Test
+    void optimisticIncrease() {
+        Member saved = saveMember(10);
+
+        memberAgeService.increaseAgeOptimistic(saved.getUsername());
+        memberAgeService.increaseAgeOptimistic(saved.getUsername());
+
+        Member member = memberRepository.findById(saved.getId()).orElseThrow();
+        assertThat(member.getAge()).isEqualTo(12);
+        assertThat(member.getVersion()).isEqualTo(2L);
+    }
+}